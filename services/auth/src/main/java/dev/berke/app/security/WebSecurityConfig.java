@@ -4,6 +4,7 @@ import dev.berke.app.security.jwt.AuthEntryPointJwt;
 import dev.berke.app.security.jwt.AuthTokenFilter;
 import dev.berke.app.security.service.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -59,6 +60,8 @@ public class WebSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/v1/auth/login", "/api/v1/auth/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/logout").authenticated()
+                        // actuator exposes and changes replica state (DELETE /actuator/secondlevelcache)
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("BACKOFFICE")
                         .anyRequest().authenticated());
 
         http.authenticationProvider(authenticationProvider());
@@ -2,11 +2,16 @@ package dev.berke.app.user.domain.repository;
 
 import dev.berke.app.user.domain.model.Role;
 import dev.berke.app.user.domain.model.RoleType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Integer> {
 
+    // result ids come from the query cache, the rows from the role region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(RoleType name);
 }
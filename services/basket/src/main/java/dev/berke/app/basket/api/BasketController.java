@@ -1,17 +1,22 @@
 package dev.berke.app.basket.api;
 
 import dev.berke.app.basket.api.dto.BasketAddItemRequest;
+import dev.berke.app.basket.api.dto.BasketCheckoutResponse;
 import dev.berke.app.basket.api.dto.BasketResponse;
 import dev.berke.app.basket.application.BasketService;
 import dev.berke.app.basket.api.dto.BasketTotalPriceResponse;
+import dev.berke.app.shared.exception.BasketVersionMismatchException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -25,18 +30,48 @@ public class BasketController {
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<BasketResponse> getBasket(
-            @AuthenticationPrincipal String customerIdPrincipal
+            @AuthenticationPrincipal String customerIdPrincipal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ){
-        return ResponseEntity.ok(basketService.getBasket(customerIdPrincipal));
+        // unchanged basket, answered from the version alone
+        if (ifNoneMatch != null) {
+            Long version = basketService.getBasketVersion(customerIdPrincipal);
+            if (version.equals(parseETag(ifNoneMatch, true))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(toETag(version))
+                        .build();
+            }
+        }
+
+        BasketResponse basketResponse = basketService.getBasket(customerIdPrincipal);
+        return ResponseEntity.ok()
+                .eTag(toETag(basketResponse.version()))
+                .body(basketResponse);
     }
 
     @PostMapping("/items")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<BasketResponse> addItemToBasket(
             @AuthenticationPrincipal String customerIdPrincipal,
-            @Valid @RequestBody BasketAddItemRequest basketAddItemRequest
+            @Valid @RequestBody BasketAddItemRequest basketAddItemRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return ResponseEntity.ok(basketService.addItemToBasket(customerIdPrincipal, basketAddItemRequest));
+        // "*" matches any current version, so it adds unconditionally like a missing header
+        // If-Match uses the strong comparison (RFC 9110 13.1.1), a weak validator never matches
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = parseETag(ifMatch, false);
+            if (expectedVersion == null) {
+                throw new BasketVersionMismatchException(
+                        String.format("If-Match is not a strong basket version ETag: %s", ifMatch));
+            }
+        }
+
+        BasketResponse basketResponse =
+                basketService.addItemToBasket(customerIdPrincipal, basketAddItemRequest, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(toETag(basketResponse.version()))
+                .body(basketResponse);
     }
 
     @GetMapping("/total-price")
@@ -46,4 +81,36 @@ public class BasketController {
     ) {
         return ResponseEntity.ok(basketService.calculateTotalBasketPrice(customerIdPrincipal));
     }
+
+    @GetMapping("/me/checkout")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BasketCheckoutResponse> getCheckoutSnapshot(
+            @AuthenticationPrincipal String customerIdPrincipal
+    ) {
+        return ResponseEntity.ok(basketService.getCheckoutSnapshot(customerIdPrincipal));
+    }
+
+    private static String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // accepts "3", and W/"3" where the weak comparison applies, null for anything else
+    private static Long parseETag(String eTag, boolean weakAllowed) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            if (!weakAllowed) {
+                return null;
+            }
+            value = value.substring(2);
+        }
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
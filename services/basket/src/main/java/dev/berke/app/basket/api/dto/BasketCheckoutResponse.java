@@ -0,0 +1,15 @@
+package dev.berke.app.basket.api.dto;
+
+import dev.berke.app.basket.domain.model.BasketItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// items and total from a single read, contentHash changes whenever items, quantities or prices change
+public record BasketCheckoutResponse(
+        String customerId,
+        List<BasketItem> items,
+        BigDecimal totalPrice,
+        String contentHash
+) {
+}
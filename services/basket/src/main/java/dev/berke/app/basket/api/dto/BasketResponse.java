@@ -6,6 +6,7 @@ import java.util.List;
 
 public record BasketResponse(
         String customerId,
-        List<BasketItem> items
+        List<BasketItem> items,
+        Long version
 ) {
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 public record BasketTotalPriceResponse(
         String customerId,
-        BigDecimal totalPrice
+        BigDecimal totalPrice,
+        Integer itemCount
 ) {
 }
\ No newline at end of file
@@ -2,20 +2,29 @@ package dev.berke.app.basket.application;
 
 import dev.berke.app.basket.domain.model.Basket;
 import dev.berke.app.basket.domain.model.BasketItem;
+import dev.berke.app.basket.domain.model.BasketTotals;
 import dev.berke.app.basket.domain.repository.BasketRepository;
 import dev.berke.app.basket.domain.model.ItemType;
 import dev.berke.app.basket.api.dto.BasketAddItemRequest;
+import dev.berke.app.basket.api.dto.BasketCheckoutResponse;
+import dev.berke.app.basket.api.dto.BasketItemRequest;
 import dev.berke.app.basket.api.dto.BasketResponse;
 import dev.berke.app.basket.api.dto.BasketTotalPriceResponse;
-import dev.berke.app.basket.infrastructure.client.product.ProductClient;
+import dev.berke.app.basket.infrastructure.cache.ProductSnapshotCache;
 import dev.berke.app.basket.infrastructure.client.product.ProductResponse;
 import dev.berke.app.shared.exception.BasketNotFoundException;
+import dev.berke.app.shared.exception.BasketVersionMismatchException;
+import dev.berke.app.shared.exception.ProductNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,7 +32,7 @@ import java.util.stream.Collectors;
 public class BasketService {
 
     private final BasketRepository basketRepository;
-    private final ProductClient productClient;
+    private final ProductSnapshotCache productSnapshotCache;
 
     public BasketResponse getBasket(String customerId) {
         Basket basket = basketRepository.findById(customerId)
@@ -33,22 +42,40 @@ public class BasketService {
 
         return new BasketResponse(
                 basket.getCustomerId(),
-                basket.getItems()
+                basket.getItems(),
+                basket.getVersion()
         );
     }
 
+    // version only, lets unchanged baskets be answered without loading the items
+    public Long getBasketVersion(String customerId) {
+        return basketRepository.findVersionById(customerId)
+                .orElseThrow(() -> new BasketNotFoundException(
+                        String.format("Basket not found for customer ID: %s", customerId)
+                ));
+    }
+
+    // expectedVersion comes from If-Match, null adds unconditionally
     public BasketResponse addItemToBasket(
             String customerId,
-            BasketAddItemRequest basketAddItemRequest
+            BasketAddItemRequest basketAddItemRequest,
+            Long expectedVersion
     ) {
-        Basket basket = basketRepository.findById(customerId)
-                .orElse(new Basket(customerId, new ArrayList<>()));
+        // resolve all requested products with one lookup
+        Set<Integer> productIds = basketAddItemRequest.items().stream()
+                .map(BasketItemRequest::productId)
+                .collect(Collectors.toSet());
+        Map<Integer, ProductResponse> products = productSnapshotCache.getProducts(productIds);
 
         // transform new items
         List<BasketItem> newBasketItems = basketAddItemRequest.items().stream()
                 .map(basketItemRequest -> {
-                    ProductResponse productResponse = productClient
-                            .getProductById(basketItemRequest.productId());
+                    ProductResponse productResponse = products.get(basketItemRequest.productId());
+                    if (productResponse == null) {
+                        throw new ProductNotFoundException(String.format(
+                                "Product not found with ID: %s", basketItemRequest.productId()));
+                    }
+
                     return new BasketItem(
                             productResponse.productId(),
                             productResponse.productName(),
@@ -60,48 +87,65 @@ public class BasketService {
                     );
                 }).collect(Collectors.toList());
 
-        // add/update items
-        List<BasketItem> existingItems = basket.getItems() != null ? basket.getItems() : new ArrayList<>();
-        for(BasketItem newBasketItem : newBasketItems){
-            boolean itemExists = false;
-            for(BasketItem existingItem : existingItems){
-                if(existingItem.getProductId().equals(newBasketItem.getProductId())){
-                    existingItem.setQuantity(existingItem.getQuantity() + newBasketItem.getQuantity());
-                    itemExists = true;
-                    break;
-                }
-            }
-            if(!itemExists){
-                existingItems.add(newBasketItem);
-            }
-        }
-
-        basket.setItems(existingItems);
-        Basket updatedBasket = basketRepository.save(basket);
+        // add/update items, quantities are summed in redis
+        Basket updatedBasket = basketRepository.addItems(customerId, newBasketItems, expectedVersion)
+                .orElseThrow(() -> new BasketVersionMismatchException(
+                        String.format("Basket was changed, it is no longer at version: %s", expectedVersion)
+                ));
 
-        return new BasketResponse(updatedBasket.getCustomerId(), updatedBasket.getItems());
+        return new BasketResponse(
+                updatedBasket.getCustomerId(),
+                updatedBasket.getItems(),
+                updatedBasket.getVersion()
+        );
     }
 
+    // running total kept with the basket, the items are not loaded
     public BasketTotalPriceResponse calculateTotalBasketPrice(String customerId) {
-        Basket basket = basketRepository.findById(customerId)
+        BasketTotals basketTotals = basketRepository.findTotalsById(customerId)
                 .orElseThrow(() -> new BasketNotFoundException(
                         String.format("Basket not found for customer ID: %s", customerId)
                 ));
 
-        List<BasketItem> items = basket.getItems();
+        return new BasketTotalPriceResponse(
+                customerId,
+                basketTotals.totalPrice(),
+                basketTotals.itemCount()
+        );
+    }
 
-        if (items == null || items.isEmpty()) {
-            return new BasketTotalPriceResponse(customerId, BigDecimal.ZERO);
-        }
+    // single basket read for checkout, replaces calling /me and /total-price one after another
+    public BasketCheckoutResponse getCheckoutSnapshot(String customerId) {
+        Basket basket = basketRepository.findById(customerId)
+                .orElseThrow(() -> new BasketNotFoundException(
+                        String.format("Basket not found for customer ID: %s", customerId)
+                ));
+
+        List<BasketItem> items = basket.getItems() != null ? basket.getItems() : List.of();
 
-        BigDecimal totalPrice = items.stream()
-                .map(item -> {
-                    BigDecimal price = item.getBasePrice() != null ? item.getBasePrice() : BigDecimal.ZERO;
+        return new BasketCheckoutResponse(
+                customerId,
+                items,
+                basket.getTotalPrice(),
+                calculateContentHash(items)
+        );
+    }
 
-                    return price.multiply(BigDecimal.valueOf(item.getQuantity()));
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // sha-256 over (productId, quantity, basePrice) of every item, in basket order
+    private String calculateContentHash(List<BasketItem> items) {
+        StringBuilder content = new StringBuilder();
+        for (BasketItem item : items) {
+            content.append(item.getProductId()).append(':')
+                    .append(item.getQuantity()).append(':')
+                    .append(item.getBasePrice() != null ? item.getBasePrice().toPlainString() : "")
+                    .append(';');
+        }
 
-        return new BasketTotalPriceResponse(customerId, totalPrice);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
\ No newline at end of file
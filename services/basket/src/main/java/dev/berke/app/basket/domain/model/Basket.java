@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -17,4 +18,11 @@ public class Basket {
     @Id
     private String customerId;
     private List<BasketItem> items;
+
+    // running aggregates, updated together with the items
+    private BigDecimal totalPrice;
+    private Integer itemCount;
+
+    // incremented on every change, used as the ETag of the basket
+    private Long version;
 }
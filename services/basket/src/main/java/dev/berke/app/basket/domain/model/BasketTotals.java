@@ -0,0 +1,10 @@
+package dev.berke.app.basket.domain.model;
+
+import java.math.BigDecimal;
+
+// itemCount is the sum of all quantities
+public record BasketTotals(
+        BigDecimal totalPrice,
+        Integer itemCount
+) {
+}
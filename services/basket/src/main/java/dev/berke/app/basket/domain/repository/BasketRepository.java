@@ -1,9 +1,24 @@
 package dev.berke.app.basket.domain.repository;
 
 import dev.berke.app.basket.domain.model.Basket;
-import org.springframework.data.repository.CrudRepository;
-import org.springframework.stereotype.Repository;
+import dev.berke.app.basket.domain.model.BasketItem;
+import dev.berke.app.basket.domain.model.BasketTotals;
 
-@Repository
-public interface BasketRepository extends CrudRepository<Basket, String> {
-}
\ No newline at end of file
+import java.util.List;
+import java.util.Optional;
+
+public interface BasketRepository {
+
+    Optional<Basket> findById(String customerId);
+
+    // reads the running aggregates only, without loading the items
+    Optional<BasketTotals> findTotalsById(String customerId);
+
+    // reads the version only, 0 for a basket that was never changed since versions were added
+    Optional<Long> findVersionById(String customerId);
+
+    // adds the quantities atomically, the product snapshot of an item already in the basket is kept
+    // with an expected version the add only happens if the basket is still at that version,
+    // otherwise nothing is written and the result is empty
+    Optional<Basket> addItems(String customerId, List<BasketItem> items, Long expectedVersion);
+}
@@ -0,0 +1,76 @@
+package dev.berke.app.basket.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.berke.app.basket.infrastructure.client.product.ProductClient;
+import dev.berke.app.basket.infrastructure.client.product.ProductResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// bounded in-process cache of product lookups used when items are added
+// entries are dropped on product events, the ttl only bounds staleness if an event is missed
+// metrics: cache.gets{result=hit|miss}, cache.evictions, cache.size (cache=basket.products)
+// and basket.product.cache.hit.ratio
+@Component
+public class ProductSnapshotCache {
+
+    private static final String CACHE_NAME = "basket.products";
+
+    // same limit as product-service's batch endpoint
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final ProductClient productClient;
+    private final Cache<Integer, ProductResponse> cache;
+
+    public ProductSnapshotCache(
+            ProductClient productClient,
+            MeterRegistry meterRegistry,
+            @Value("${app.basket.product-cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.basket.product-cache.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        this.productClient = productClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("basket.product.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of product lookups served from the local cache")
+                .register(meterRegistry);
+    }
+
+    // cached products are served locally, the missing ones are loaded with one batch call
+    // ids unknown to product-service are not in the returned map
+    public Map<Integer, ProductResponse> getProducts(Set<Integer> productIds) {
+        return cache.getAll(productIds, this::loadProducts);
+    }
+
+    public void invalidate(Integer productId) {
+        cache.invalidate(productId);
+    }
+
+    private Map<Integer, ProductResponse> loadProducts(Set<? extends Integer> productIds) {
+        List<Integer> ids = new ArrayList<>(productIds);
+        Map<Integer, ProductResponse> products = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            for (ProductResponse product : productClient.getProductsByIds(chunk)) {
+                products.put(product.productId(), product);
+            }
+        }
+        return products;
+    }
+}
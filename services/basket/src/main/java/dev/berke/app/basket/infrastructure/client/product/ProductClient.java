@@ -3,10 +3,17 @@ package dev.berke.app.basket.infrastructure.client.product;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "product-service", path = "/api/v1/products")
 public interface ProductClient {
 
     @GetMapping("/{product-id}")
     ProductResponse getProductById(@PathVariable("product-id") Integer productId);
+
+    // at most 100 ids per call, unknown ids are left out of the response
+    @GetMapping("/batch")
+    List<ProductResponse> getProductsByIds(@RequestParam("ids") List<Integer> productIds);
 }
\ No newline at end of file
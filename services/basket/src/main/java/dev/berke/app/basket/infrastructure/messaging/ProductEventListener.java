@@ -0,0 +1,46 @@
+package dev.berke.app.basket.infrastructure.messaging;
+
+import dev.berke.app.basket.infrastructure.cache.ProductSnapshotCache;
+import dev.berke.app.basket.infrastructure.messaging.event.ProductPublishedEvent;
+import dev.berke.app.basket.infrastructure.messaging.event.ProductUnpublishedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// every replica keeps its own cache, so every replica has to see every event
+// each replica subscribes with a consumer group of its own, started from the latest offset,
+// the cache starts empty so older events do not matter
+// the subscription waits for kafka and the topic instead of failing the startup,
+// and partitions added later are picked up with the next metadata refresh
+// a stopped replica leaves an empty group behind, kafka drops it once its offsets expire
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@KafkaListener(
+        topics = "${app.kafka.topics.product-events:product-events}",
+        groupId = "basket-product-cache-${random.uuid}",
+        properties = "auto.offset.reset=latest"
+)
+public class ProductEventListener {
+
+    private final ProductSnapshotCache productSnapshotCache;
+
+    @KafkaHandler
+    public void handleProductPublished(ProductPublishedEvent event) {
+        log.debug("Invalidating cached product: {} after ProductPublishedEvent", event.productId());
+        productSnapshotCache.invalidate(event.productId());
+    }
+
+    @KafkaHandler
+    public void handleProductUnpublished(ProductUnpublishedEvent event) {
+        log.debug("Invalidating cached product: {} after ProductUnpublishedEvent", event.productId());
+        productSnapshotCache.invalidate(event.productId());
+    }
+
+    @KafkaHandler(isDefault = true)
+    public void handleUnknown(Object object) {
+        log.warn("Received an unknown event type from Kafka: {}", object);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.berke.app.basket.infrastructure.messaging.event;
+
+// only the id is read, the cached snapshot is dropped and reloaded on next use
+public record ProductPublishedEvent(
+        Integer productId
+) {
+}
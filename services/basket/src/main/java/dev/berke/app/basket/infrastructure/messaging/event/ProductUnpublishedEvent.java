@@ -0,0 +1,6 @@
+package dev.berke.app.basket.infrastructure.messaging.event;
+
+public record ProductUnpublishedEvent(
+        Integer productId
+) {
+}
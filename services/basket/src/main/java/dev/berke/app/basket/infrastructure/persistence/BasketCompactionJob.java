@@ -0,0 +1,205 @@
+package dev.berke.app.basket.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// walks the basket keys with SCAN in small pages, so redis is never blocked for long
+// baskets accessed since the idle ttl was introduced already expire by themselves,
+// this job handles keys without an expiry (older baskets and the old @RedisHash layout)
+// 1. idle longer than the idle ttl (OBJECT IDLETIME) -> UNLINK, reclaimed bytes from MEMORY USAGE
+// 2. otherwise -> EXPIRE with the idle time left
+// old layout baskets are also listed in the "Basket" index set, they never get an expiry
+// (it would leave the id in the set) and are deleted through LegacyBasketRepository once idle,
+// ids left in the set by old layout baskets that expired anyway are removed from it
+@Component
+@Slf4j
+public class BasketCompactionJob {
+
+    // old layout keys are "Basket:<customerId>", the plain "Basket" index set is not matched
+    private static final String LEGACY_KEY_PATTERN = "Basket:*";
+    private static final String LEGACY_KEY_PREFIX = "Basket:";
+    private static final String LEGACY_INDEX_KEY = "Basket";
+    private static final String LEGACY_INDEX_SUFFIX = ":idx";
+
+    private final RedisTemplate<String, byte[]> basketRedisTemplate;
+    private final LegacyBasketRepository legacyBasketRepository;
+
+    private final Counter evictedCounter;
+    private final Counter reclaimedBytesCounter;
+    private final Counter expiryAppliedCounter;
+    private final Timer runTimer;
+    private final AtomicLong basketCount = new AtomicLong();
+
+    @Value("${app.basket.idle-ttl:30d}")
+    private Duration idleTtl;
+
+    @Value("${app.basket.compaction.page-size:100}")
+    private int pageSize;
+
+    public BasketCompactionJob(
+            RedisTemplate<String, byte[]> basketRedisTemplate,
+            LegacyBasketRepository legacyBasketRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.basketRedisTemplate = basketRedisTemplate;
+        this.legacyBasketRepository = legacyBasketRepository;
+
+        this.evictedCounter = Counter.builder("basket.compaction.evicted")
+                .description("Abandoned baskets removed by the compaction job")
+                .register(meterRegistry);
+        this.reclaimedBytesCounter = Counter.builder("basket.compaction.reclaimed")
+                .description("Redis memory reported for the removed baskets")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.expiryAppliedCounter = Counter.builder("basket.compaction.expiry.applied")
+                .description("Baskets without an expiry that got the idle ttl")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("basket.compaction.run")
+                .description("Time to scan all basket keys once")
+                .register(meterRegistry);
+        Gauge.builder("basket.count", basketCount, AtomicLong::get)
+                .description("Basket keys seen by the last compaction run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.basket.compaction.interval-ms:3600000}",
+            fixedDelayString = "${app.basket.compaction.interval-ms:3600000}"
+    )
+    public void compact() {
+        runTimer.record(() -> {
+            long seen = scan(RedisBasketRepository.KEY_PREFIX + "*") + scan(LEGACY_KEY_PATTERN);
+            basketCount.set(seen);
+            removeDanglingLegacyIds();
+        });
+    }
+
+    private long scan(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(pattern)
+                .count(pageSize)
+                .build();
+
+        long seen = 0;
+        try (Cursor<String> cursor = basketRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                compactKey(cursor.next());
+                seen++;
+            }
+        } catch (DataAccessException e) {
+            log.error("Basket compaction stopped while scanning: {}", pattern, e);
+        }
+        return seen;
+    }
+
+    // SSCAN over the old layout index set, ids whose hash is gone are dropped with their :idx key
+    private void removeDanglingLegacyIds() {
+        ScanOptions options = ScanOptions.scanOptions().count(pageSize).build();
+
+        try (Cursor<byte[]> cursor = basketRedisTemplate.opsForSet().scan(LEGACY_INDEX_KEY, options)) {
+            while (cursor.hasNext()) {
+                byte[] member = cursor.next();
+                String customerId = new String(member, StandardCharsets.UTF_8);
+                if (Boolean.TRUE.equals(basketRedisTemplate.hasKey(LEGACY_KEY_PREFIX + customerId))) {
+                    continue;
+                }
+
+                basketRedisTemplate.opsForSet().remove(LEGACY_INDEX_KEY, (Object) member);
+                basketRedisTemplate.unlink(LEGACY_KEY_PREFIX + customerId + LEGACY_INDEX_SUFFIX);
+            }
+        } catch (DataAccessException e) {
+            log.error("Basket compaction stopped while cleaning the old layout index", e);
+        }
+    }
+
+    private void compactKey(String key) {
+        boolean legacy = key.startsWith(LEGACY_KEY_PREFIX);
+        if (legacy && key.indexOf(':', LEGACY_KEY_PREFIX.length()) >= 0) {
+            // secondary index keys of the old layout (Basket:<id>:idx), removed with their basket
+            return;
+        }
+
+        Long ttl = basketRedisTemplate.getExpire(key);
+        if (ttl == null || ttl != -1) {
+            // already expiring, or gone in the meantime
+            return;
+        }
+
+        Long idleSeconds = basketRedisTemplate.execute((RedisCallback<Long>) connection -> idleTime(connection, key));
+        if (idleSeconds == null) {
+            // idle time is not tracked under an LFU eviction policy, start the idle ttl from now,
+            // old layout baskets are left to the migration on their next access
+            if (!legacy) {
+                applyExpiry(key, idleTtl);
+            }
+            return;
+        }
+
+        if (idleSeconds >= idleTtl.toSeconds()) {
+            Long usedBytes = basketRedisTemplate.execute((RedisCallback<Long>) connection -> memoryUsage(connection, key));
+            if (legacy ? deleteLegacy(key) : Boolean.TRUE.equals(basketRedisTemplate.unlink(key))) {
+                evictedCounter.increment();
+                reclaimedBytesCounter.increment(usedBytes != null ? usedBytes : 0);
+            }
+            return;
+        }
+
+        if (!legacy) {
+            applyExpiry(key, idleTtl.minusSeconds(idleSeconds));
+        }
+    }
+
+    // removes the hash, its id in the "Basket" set and its :idx key together
+    private boolean deleteLegacy(String key) {
+        String customerId = key.substring(LEGACY_KEY_PREFIX.length());
+        if (!legacyBasketRepository.existsById(customerId)) {
+            return false;
+        }
+
+        legacyBasketRepository.deleteById(customerId);
+        return true;
+    }
+
+    private void applyExpiry(String key, Duration timeout) {
+        if (Boolean.TRUE.equals(basketRedisTemplate.expire(key, timeout))) {
+            expiryAppliedCounter.increment();
+        }
+    }
+
+    private static Long idleTime(RedisConnection connection, String key) {
+        try {
+            Duration idleTime = connection.keyCommands().idletime(bytes(key));
+            return idleTime != null ? idleTime.toSeconds() : null;
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private static Long memoryUsage(RedisConnection connection, String key) {
+        try {
+            return (Long) connection.execute("MEMORY", bytes("USAGE"), bytes(key));
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.berke.app.basket.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.basket.domain.model.BasketItem;
+import dev.berke.app.basket.domain.model.ItemType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+// fixed layout encoding of a basket item snapshot (quantity is stored in its own hash field)
+//   byte    format version
+//   byte    presence bits of the nullable fields below
+//   int     productId
+//   utf     productName
+//   byte    basePrice scale, followed by the unscaled value as length prefixed bytes
+//   utf     manufacturer
+//   int     categoryId
+//   byte    itemType ordinal
+// values written as json by the earlier layout start with '{' and are still read
+@Component
+@RequiredArgsConstructor
+public class BasketItemCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte JSON_START = '{';
+
+    private static final int HAS_PRODUCT_ID = 1;
+    private static final int HAS_PRODUCT_NAME = 1 << 1;
+    private static final int HAS_BASE_PRICE = 1 << 2;
+    private static final int HAS_MANUFACTURER = 1 << 3;
+    private static final int HAS_CATEGORY_ID = 1 << 4;
+    private static final int HAS_ITEM_TYPE = 1 << 5;
+
+    private final ObjectMapper objectMapper;
+
+    public byte[] encode(BasketItem item) {
+        int presence = (item.getProductId() != null ? HAS_PRODUCT_ID : 0)
+                | (item.getProductName() != null ? HAS_PRODUCT_NAME : 0)
+                | (item.getBasePrice() != null ? HAS_BASE_PRICE : 0)
+                | (item.getManufacturer() != null ? HAS_MANUFACTURER : 0)
+                | (item.getCategoryId() != null ? HAS_CATEGORY_ID : 0)
+                | (item.getItemType() != null ? HAS_ITEM_TYPE : 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(presence);
+
+            if (item.getProductId() != null) {
+                out.writeInt(item.getProductId());
+            }
+            if (item.getProductName() != null) {
+                out.writeUTF(item.getProductName());
+            }
+            if (item.getBasePrice() != null) {
+                byte[] unscaled = item.getBasePrice().unscaledValue().toByteArray();
+                out.writeByte(item.getBasePrice().scale());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+            }
+            if (item.getManufacturer() != null) {
+                out.writeUTF(item.getManufacturer());
+            }
+            if (item.getCategoryId() != null) {
+                out.writeInt(item.getCategoryId());
+            }
+            if (item.getItemType() != null) {
+                out.writeByte(item.getItemType().ordinal());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode basket item", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public BasketItem decode(byte[] value) {
+        try {
+            if (value.length > 0 && value[0] == JSON_START) {
+                return objectMapper.readValue(value, BasketItem.class);
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unknown basket item format version: " + version);
+            }
+
+            int presence = in.readUnsignedByte();
+            BasketItem item = new BasketItem();
+
+            if ((presence & HAS_PRODUCT_ID) != 0) {
+                item.setProductId(in.readInt());
+            }
+            if ((presence & HAS_PRODUCT_NAME) != 0) {
+                item.setProductName(in.readUTF());
+            }
+            if ((presence & HAS_BASE_PRICE) != 0) {
+                int scale = in.readByte();
+                byte[] unscaled = new byte[in.readUnsignedByte()];
+                in.readFully(unscaled);
+                item.setBasePrice(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+            if ((presence & HAS_MANUFACTURER) != 0) {
+                item.setManufacturer(in.readUTF());
+            }
+            if ((presence & HAS_CATEGORY_ID) != 0) {
+                item.setCategoryId(in.readInt());
+            }
+            if ((presence & HAS_ITEM_TYPE) != 0) {
+                item.setItemType(ItemType.values()[in.readUnsignedByte()]);
+            }
+            return item;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot decode basket item", e);
+        }
+    }
+}
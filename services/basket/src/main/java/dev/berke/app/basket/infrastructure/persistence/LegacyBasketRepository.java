@@ -0,0 +1,8 @@
+package dev.berke.app.basket.infrastructure.persistence;
+
+import dev.berke.app.basket.domain.model.Basket;
+import org.springframework.data.repository.CrudRepository;
+
+// old @RedisHash("Basket") layout, only read to migrate baskets written before the per-item layout
+public interface LegacyBasketRepository extends CrudRepository<Basket, String> {
+}
@@ -0,0 +1,363 @@
+package dev.berke.app.basket.infrastructure.persistence;
+
+import dev.berke.app.basket.domain.model.Basket;
+import dev.berke.app.basket.domain.model.BasketItem;
+import dev.berke.app.basket.domain.model.BasketTotals;
+import dev.berke.app.basket.domain.repository.BasketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// one redis hash per basket, three fields per product:
+//   qty:<productId>   -> quantity, changed server side with HINCRBY
+//   price:<productId> -> unit price in cents, from the product snapshot
+//   item:<productId>  -> product snapshot encoded by BasketItemCodec (without quantity)
+// and three basket wide fields:
+//   total   -> sum of price * qty in cents
+//   count   -> sum of qty
+//   version -> incremented by every write
+// a write touches only the fields of the changed items and the aggregates
+// every read and write pushes the key expiry to now + idle ttl, abandoned baskets expire on their own
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class RedisBasketRepository implements BasketRepository {
+
+    static final String KEY_PREFIX = "basket:";
+    private static final String QUANTITY_FIELD_PREFIX = "qty:";
+    private static final String PRICE_FIELD_PREFIX = "price:";
+    private static final String ITEM_FIELD_PREFIX = "item:";
+    private static final String TOTAL_FIELD = "total";
+    private static final String COUNT_FIELD = "count";
+    private static final String VERSION_FIELD = "version";
+    private static final String VERSION_MISMATCH = "version-mismatch";
+
+    private static final int PRICE_SCALE = 2;
+
+    // baskets written before the running aggregates get them computed once, inside the script
+    // their items are still json, every item written since then has its price field
+    private static final String ENSURE_TOTALS = """
+            local function ensureTotals(key)
+                if redis.call('HEXISTS', key, 'total') == 1 then
+                    return
+                end
+                local values = {}
+                local fields = redis.call('HGETALL', key)
+                for i = 1, #fields, 2 do
+                    values[fields[i]] = fields[i + 1]
+                end
+                local total, count = 0, 0
+                for field, value in pairs(values) do
+                    if string.sub(field, 1, 5) == 'item:' then
+                        local productId = string.sub(field, 6)
+                        local price = values['price:' .. productId]
+                        if not price then
+                            local basePrice = tonumber(cjson.decode(value).basePrice) or 0
+                            price = math.floor(basePrice * 100 + 0.5)
+                            redis.call('HSET', key, 'price:' .. productId, price)
+                        end
+                        local quantity = tonumber(values['qty:' .. productId] or 0)
+                        total = total + tonumber(price) * quantity
+                        count = count + quantity
+                    end
+                end
+                redis.call('HSET', key, 'total', total, 'count', count)
+            end
+            """;
+
+    // ARGV: idle ttl in seconds, expected version ('' for none),
+    // then productId, quantity, unit price in cents, encoded item for every added item
+    // the added quantity is priced with the snapshot already in the basket, if there is one
+    // returns the whole basket hash, so the response needs no second round trip
+    private static final RedisScript<List> ADD_ITEMS_SCRIPT = RedisScript.of(ENSURE_TOTALS + """
+            local key = KEYS[1]
+            if ARGV[2] ~= '' and (redis.call('HGET', key, 'version') or '0') ~= ARGV[2] then
+                return {'version-mismatch'}
+            end
+            ensureTotals(key)
+            for i = 3, #ARGV, 4 do
+                local productId = ARGV[i]
+                local quantity = tonumber(ARGV[i + 1])
+                redis.call('HSETNX', key, 'price:' .. productId, ARGV[i + 2])
+                redis.call('HSETNX', key, 'item:' .. productId, ARGV[i + 3])
+                local price = tonumber(redis.call('HGET', key, 'price:' .. productId))
+                redis.call('HINCRBY', key, 'qty:' .. productId, quantity)
+                redis.call('HINCRBY', key, 'total', price * quantity)
+                redis.call('HINCRBY', key, 'count', quantity)
+            end
+            redis.call('HINCRBY', key, 'version', 1)
+            redis.call('EXPIRE', key, ARGV[1])
+            return redis.call('HGETALL', key)
+            """, List.class);
+
+    // ARGV: idle ttl in seconds
+    private static final RedisScript<List> READ_SCRIPT = RedisScript.of("""
+            local fields = redis.call('HGETALL', KEYS[1])
+            if #fields > 0 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            return fields
+            """, List.class);
+
+    // ARGV: idle ttl in seconds
+    private static final RedisScript<byte[]> VERSION_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return false
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return redis.call('HGET', KEYS[1], 'version') or '0'
+            """, byte[].class);
+
+    private static final RedisScript<List> TOTALS_SCRIPT = RedisScript.of(ENSURE_TOTALS + """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return {}
+            end
+            ensureTotals(KEYS[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return redis.call('HMGET', KEYS[1], 'total', 'count')
+            """, List.class);
+
+    // writes a migrated basket only if the new key does not exist yet, a concurrent add or a
+    // second migration that got there first is kept
+    // ARGV: idle ttl in seconds, then field, value pairs
+    private static final RedisScript<Long> MIGRATE_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            for i = 2, #ARGV, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, byte[]> basketRedisTemplate;
+    private final LegacyBasketRepository legacyBasketRepository;
+    private final BasketItemCodec basketItemCodec;
+
+    @Value("${app.basket.idle-ttl:30d}")
+    private Duration idleTtl;
+
+    @Override
+    public Optional<Basket> findById(String customerId) {
+        List<?> result = basketRedisTemplate.execute(READ_SCRIPT, List.of(key(customerId)), ttlArg());
+        if (result == null || result.isEmpty()) {
+            return migrateLegacyBasket(customerId);
+        }
+        return Optional.of(toBasket(customerId, toFields(result)));
+    }
+
+    @Override
+    public Optional<BasketTotals> findTotalsById(String customerId) {
+        List<?> result = basketRedisTemplate.execute(TOTALS_SCRIPT, List.of(key(customerId)), ttlArg());
+        if (result == null || result.isEmpty()) {
+            return migrateLegacyBasket(customerId)
+                    .map(basket -> new BasketTotals(basket.getTotalPrice(), basket.getItemCount()));
+        }
+
+        return Optional.of(new BasketTotals(
+                fromCents(Long.parseLong(string(result.get(0)))),
+                Integer.valueOf(string(result.get(1)))
+        ));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String customerId) {
+        byte[] version = basketRedisTemplate.execute(VERSION_SCRIPT, List.of(key(customerId)), ttlArg());
+        if (version == null) {
+            return migrateLegacyBasket(customerId).map(Basket::getVersion);
+        }
+        return Optional.of(Long.valueOf(string(version)));
+    }
+
+    @Override
+    public Optional<Basket> addItems(String customerId, List<BasketItem> items, Long expectedVersion) {
+        if (!Boolean.TRUE.equals(basketRedisTemplate.hasKey(key(customerId)))) {
+            migrateLegacyBasket(customerId);
+        }
+
+        List<byte[]> args = new ArrayList<>(items.size() * 4 + 2);
+        args.add(ttlArg());
+        args.add(expectedVersion != null ? bytes(expectedVersion) : new byte[0]);
+        for (BasketItem item : items) {
+            args.add(bytes(item.getProductId()));
+            args.add(bytes(item.getQuantity()));
+            args.add(bytes(toCents(item.getBasePrice())));
+            args.add(encodeItem(item));
+        }
+
+        List<?> result = basketRedisTemplate.execute(ADD_ITEMS_SCRIPT, List.of(key(customerId)), args.toArray());
+        if (result.size() == 1 && VERSION_MISMATCH.equals(string(result.get(0)))) {
+            return Optional.empty();
+        }
+        return Optional.of(toBasket(customerId, toFields(result)));
+    }
+
+    // moves a basket from the old layout on first access, can be removed once no old keys are left
+    // the new hash is written atomically and only when it does not exist, a caller that loses the
+    // race reads the basket written by the winner
+    private Optional<Basket> migrateLegacyBasket(String customerId) {
+        Optional<Basket> legacyBasket = legacyBasketRepository.findById(customerId);
+        if (legacyBasket.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Basket basket = legacyBasket.get();
+        List<BasketItem> items = basket.getItems() != null ? basket.getItems() : List.of();
+
+        long totalCents = 0;
+        int itemCount = 0;
+        List<byte[]> args = new ArrayList<>(items.size() * 6 + 5);
+        args.add(ttlArg());
+        for (BasketItem item : items) {
+            long priceCents = toCents(item.getBasePrice());
+            addField(args, QUANTITY_FIELD_PREFIX + item.getProductId(), bytes(item.getQuantity()));
+            addField(args, PRICE_FIELD_PREFIX + item.getProductId(), bytes(priceCents));
+            addField(args, ITEM_FIELD_PREFIX + item.getProductId(), encodeItem(item));
+
+            totalCents += priceCents * item.getQuantity();
+            itemCount += item.getQuantity();
+        }
+        addField(args, TOTAL_FIELD, bytes(totalCents));
+        addField(args, COUNT_FIELD, bytes(itemCount));
+
+        Long migrated = basketRedisTemplate.execute(MIGRATE_SCRIPT, List.of(key(customerId)), args.toArray());
+        // removes the hash together with its entry in the repository index set
+        legacyBasketRepository.deleteById(customerId);
+
+        if (!Long.valueOf(1).equals(migrated)) {
+            List<?> result = basketRedisTemplate.execute(READ_SCRIPT, List.of(key(customerId)), ttlArg());
+            return result == null || result.isEmpty()
+                    ? Optional.empty()
+                    : Optional.of(toBasket(customerId, toFields(result)));
+        }
+
+        basket.setTotalPrice(fromCents(totalCents));
+        basket.setItemCount(itemCount);
+        basket.setVersion(0L);
+        log.info("Migrated basket of customer: {} to the per-item layout", customerId);
+        return Optional.of(basket);
+    }
+
+    private static void addField(List<byte[]> args, String field, byte[] value) {
+        args.add(field.getBytes(StandardCharsets.UTF_8));
+        args.add(value);
+    }
+
+    // HGETALL reply: field, value, field, value, ...
+    private static Map<String, byte[]> toFields(List<?> reply) {
+        Map<String, byte[]> fields = new HashMap<>();
+        for (int i = 0; i + 1 < reply.size(); i += 2) {
+            fields.put(string(reply.get(i)), (byte[]) reply.get(i + 1));
+        }
+        return fields;
+    }
+
+    private Basket toBasket(String customerId, Map<String, byte[]> fields) {
+        List<BasketItem> items = new ArrayList<>();
+        fields.forEach((field, value) -> {
+            if (!field.startsWith(ITEM_FIELD_PREFIX)) {
+                return;
+            }
+
+            String productId = field.substring(ITEM_FIELD_PREFIX.length());
+            byte[] quantity = fields.get(QUANTITY_FIELD_PREFIX + productId);
+
+            BasketItem item = basketItemCodec.decode(value);
+            item.setQuantity(quantity != null ? Integer.valueOf(string(quantity)) : 0);
+            items.add(item);
+        });
+
+        // hash fields have no order, keep the content hash of the checkout snapshot stable
+        items.sort(Comparator.comparing(BasketItem::getProductId));
+
+        byte[] version = fields.get(VERSION_FIELD);
+        Long basketVersion = version != null ? Long.valueOf(string(version)) : 0L;
+
+        byte[] total = fields.get(TOTAL_FIELD);
+        byte[] count = fields.get(COUNT_FIELD);
+        if (total == null || count == null) {
+            // written before the running aggregates, the next add stores them
+            return new Basket(customerId, items, sumPrices(items), sumQuantities(items), basketVersion);
+        }
+        return new Basket(
+                customerId,
+                items,
+                fromCents(Long.parseLong(string(total))),
+                Integer.valueOf(string(count)),
+                basketVersion
+        );
+    }
+
+    private byte[] encodeItem(BasketItem item) {
+        BasketItem snapshot = new BasketItem(
+                item.getProductId(),
+                item.getProductName(),
+                item.getBasePrice(),
+                item.getManufacturer(),
+                item.getCategoryId(),
+                item.getItemType(),
+                null
+        );
+        return basketItemCodec.encode(snapshot);
+    }
+
+    private static BigDecimal sumPrices(List<BasketItem> items) {
+        long totalCents = 0;
+        for (BasketItem item : items) {
+            totalCents += toCents(item.getBasePrice()) * item.getQuantity();
+        }
+        return fromCents(totalCents);
+    }
+
+    private static int sumQuantities(List<BasketItem> items) {
+        int itemCount = 0;
+        for (BasketItem item : items) {
+            itemCount += item.getQuantity();
+        }
+        return itemCount;
+    }
+
+    // product prices are stored with two decimals
+    private static long toCents(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, PRICE_SCALE);
+    }
+
+    private byte[] ttlArg() {
+        return bytes(idleTtl.toSeconds());
+    }
+
+    // numeric fields are plain decimal strings, so HINCRBY keeps working on them
+    private static byte[] bytes(Object number) {
+        return String.valueOf(number).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(Object value) {
+        return new String((byte[]) value, StandardCharsets.UTF_8);
+    }
+
+    private static String key(String customerId) {
+        return KEY_PREFIX + customerId;
+    }
+}
@@ -0,0 +1,12 @@
+package dev.berke.app.shared.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class BasketVersionMismatchException extends RuntimeException {
+
+    public BasketVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package dev.berke.app.shared.handler;
 
 import dev.berke.app.shared.exception.BasketNotFoundException;
+import dev.berke.app.shared.exception.BasketVersionMismatchException;
+import dev.berke.app.shared.exception.ProductNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -34,6 +36,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(BasketVersionMismatchException.class)
+    ProblemDetail handleBasketVersionMismatchException(BasketVersionMismatchException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+
+        problemDetail.setTitle("Basket Version Mismatch");
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
+    @ExceptionHandler(ProductNotFoundException.class)
+    ProblemDetail handleProductNotFoundException(ProductNotFoundException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.NOT_FOUND, ex.getMessage());
+
+        problemDetail.setTitle("Product Not Found");
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
     // common infrastructure exceptions
 
     // validation errors (@Valid)
@@ -0,0 +1,167 @@
+package dev.berke.app.basket.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.basket.domain.model.Basket;
+import dev.berke.app.basket.domain.model.BasketItem;
+import dev.berke.app.basket.domain.model.ItemType;
+import dev.berke.app.basket.infrastructure.persistence.BasketItemCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.core.convert.MappingRedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// basket item snapshots, per basket
+// 1. redisHash: the former @RedisHash mapping, items flattened into items.[i].field entries plus _class
+// 2. json: one json value per item field, the first per-item layout
+// 3. codec: one BasketItemCodec value per item field
+// setUp logs the stored bytes per basket (hash field names plus values) for each layout,
+// the benchmarks measure writing and reading all items of one basket
+// run with: mvn -pl services/basket -Pjmh test-compile exec:exec
+//   -Djmh.benchmark=dev.berke.app.basket.benchmark.BasketCodecBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Slf4j
+public class BasketCodecBenchmark {
+
+    private static final String ITEM_FIELD_PREFIX = "item:";
+
+    @Param({"1", "10", "50"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private BasketItemCodec codec;
+    private MappingRedisConverter redisConverter;
+
+    private Basket basket;
+    private RedisData redisHashData;
+    private List<byte[]> jsonValues;
+    private List<byte[]> codecValues;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        codec = new BasketItemCodec(objectMapper);
+        redisConverter = new MappingRedisConverter(new RedisMappingContext());
+        redisConverter.afterPropertiesSet();
+
+        List<BasketItem> basketItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            basketItems.add(new BasketItem(1000 + i, "Stainless Steel Kettle " + i, new BigDecimal("129.90"),
+                    "Acme Home Appliances", 17, ItemType.PHYSICAL, 1));
+        }
+        basket = new Basket("customer-1", basketItems, null, null, null);
+
+        redisHashData = writeRedisHash();
+        jsonValues = new ArrayList<>(items);
+        codecValues = new ArrayList<>(items);
+        for (BasketItem item : basketItems) {
+            jsonValues.add(objectMapper.writeValueAsBytes(item));
+            codecValues.add(codec.encode(item));
+        }
+
+        log.info("{} items, bytes per basket: redisHash={} json={} codec={}", items,
+                redisHashBytes(redisHashData), itemFieldBytes(jsonValues), itemFieldBytes(codecValues));
+    }
+
+    @Benchmark
+    public RedisData redisHashWrite() {
+        return writeRedisHash();
+    }
+
+    @Benchmark
+    public Basket redisHashRead() {
+        return redisConverter.read(Basket.class, redisHashData);
+    }
+
+    @Benchmark
+    public List<byte[]> jsonWrite() throws JsonProcessingException {
+        List<byte[]> values = new ArrayList<>(items);
+        for (BasketItem item : basket.getItems()) {
+            values.add(objectMapper.writeValueAsBytes(item));
+        }
+        return values;
+    }
+
+    @Benchmark
+    public List<BasketItem> jsonRead() throws IOException {
+        List<BasketItem> decoded = new ArrayList<>(items);
+        for (byte[] value : jsonValues) {
+            decoded.add(objectMapper.readValue(value, BasketItem.class));
+        }
+        return decoded;
+    }
+
+    @Benchmark
+    public List<byte[]> codecWrite() {
+        List<byte[]> values = new ArrayList<>(items);
+        for (BasketItem item : basket.getItems()) {
+            values.add(codec.encode(item));
+        }
+        return values;
+    }
+
+    @Benchmark
+    public List<BasketItem> codecRead() {
+        List<BasketItem> decoded = new ArrayList<>(items);
+        for (byte[] value : codecValues) {
+            decoded.add(codec.decode(value));
+        }
+        return decoded;
+    }
+
+    private RedisData writeRedisHash() {
+        RedisData data = new RedisData();
+        redisConverter.write(basket, data);
+        return data;
+    }
+
+    private static long redisHashBytes(RedisData data) {
+        long bytes = 0;
+        for (Map.Entry<byte[], byte[]> entry : data.getBucket().rawMap().entrySet()) {
+            bytes += entry.getKey().length + entry.getValue().length;
+        }
+        return bytes;
+    }
+
+    private long itemFieldBytes(List<byte[]> values) {
+        long bytes = 0;
+        for (int i = 0; i < values.size(); i++) {
+            String field = ITEM_FIELD_PREFIX + basket.getItems().get(i).getProductId();
+            bytes += field.getBytes(StandardCharsets.UTF_8).length + values.get(i).length;
+        }
+        return bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BasketCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
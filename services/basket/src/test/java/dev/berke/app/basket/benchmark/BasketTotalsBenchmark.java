@@ -0,0 +1,117 @@
+package dev.berke.app.basket.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.basket.domain.model.BasketItem;
+import dev.berke.app.basket.domain.model.ItemType;
+import dev.berke.app.basket.infrastructure.persistence.BasketItemCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// basket total on the service side, per call
+// 1. streamReduction: the former calculateTotalBasketPrice, items already in memory
+// 2. decodeAndReduce: what a full basket read adds on top, every item snapshot decoded first
+// 3. runningTotal: the stored total and count fields (TOTALS_SCRIPT reply) parsed
+// all three need one redis round trip, the reply of 3 is two fields whatever the basket size
+// run with: mvn -pl services/basket -Pjmh test-compile exec:exec
+//   -Djmh.benchmark=dev.berke.app.basket.benchmark.BasketTotalsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasketTotalsBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int items;
+
+    private List<BasketItem> basketItems;
+    private List<byte[]> encodedItems;
+    private Map<String, Integer> quantities;
+    private byte[] storedTotal;
+    private byte[] storedCount;
+    private BasketItemCodec codec;
+
+    @Setup
+    public void setUp() {
+        codec = new BasketItemCodec(new ObjectMapper());
+        basketItems = new ArrayList<>(items);
+        encodedItems = new ArrayList<>(items);
+
+        long totalCents = 0;
+        int count = 0;
+        for (int i = 0; i < items; i++) {
+            BasketItem item = new BasketItem(i + 1, "Product " + i, new BigDecimal("19.99").add(BigDecimal.valueOf(i)),
+                    "Manufacturer", 7, ItemType.PHYSICAL, 1 + i % 3);
+            basketItems.add(item);
+            encodedItems.add(codec.encode(item));
+            totalCents += item.getBasePrice().movePointRight(2).longValueExact() * item.getQuantity();
+            count += item.getQuantity();
+        }
+
+        quantities = new HashMap<>();
+        basketItems.forEach(item -> quantities.put(String.valueOf(item.getProductId()), item.getQuantity()));
+        storedTotal = String.valueOf(totalCents).getBytes(StandardCharsets.UTF_8);
+        storedCount = String.valueOf(count).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public BigDecimal streamReduction() {
+        return reduce(basketItems);
+    }
+
+    @Benchmark
+    public BigDecimal decodeAndReduce() {
+        List<BasketItem> decoded = new ArrayList<>(encodedItems.size());
+        for (byte[] value : encodedItems) {
+            BasketItem item = codec.decode(value);
+            item.setQuantity(quantities.get(String.valueOf(item.getProductId())));
+            decoded.add(item);
+        }
+        return reduce(decoded);
+    }
+
+    @Benchmark
+    public Object[] runningTotal() {
+        return new Object[]{
+                BigDecimal.valueOf(Long.parseLong(new String(storedTotal, StandardCharsets.UTF_8)), 2),
+                Integer.valueOf(new String(storedCount, StandardCharsets.UTF_8))
+        };
+    }
+
+    private static BigDecimal reduce(List<BasketItem> items) {
+        return items.stream()
+                .map(item -> {
+                    BigDecimal price = item.getBasePrice() != null ? item.getBasePrice() : BigDecimal.ZERO;
+
+                    return price.multiply(BigDecimal.valueOf(item.getQuantity()));
+                })
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BasketTotalsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package dev.berke.app.basket.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.basket.domain.model.BasketItem;
+import dev.berke.app.basket.domain.model.ItemType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BasketItemCodecTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BasketItemCodec codec = new BasketItemCodec(objectMapper);
+
+    @Test
+    void roundTripsAllFields() {
+        BasketItem item = new BasketItem(42, "Kettle", new BigDecimal("129.90"), "Acme", 7, ItemType.PHYSICAL, null);
+
+        assertThat(codec.decode(codec.encode(item))).isEqualTo(item);
+    }
+
+    @Test
+    void roundTripsAbsentFields() {
+        BasketItem item = new BasketItem(42, null, null, null, null, null, null);
+
+        BasketItem decoded = codec.decode(codec.encode(item));
+
+        assertThat(decoded).isEqualTo(item);
+        assertThat(codec.encode(item)).hasSize(2 + Integer.BYTES);
+    }
+
+    @Test
+    void roundTripsAnEmptyItem() {
+        BasketItem item = new BasketItem();
+
+        assertThat(codec.decode(codec.encode(item))).isEqualTo(item);
+    }
+
+    @Test
+    void keepsPriceScaleAndLargeOrNegativeAmounts() {
+        for (String price : new String[]{"0", "0.00", "19.9", "-5.25", "12345678901234567890.12"}) {
+            BasketItem item = new BasketItem(1, "p", new BigDecimal(price), null, null, ItemType.VIRTUAL, null);
+
+            BasketItem decoded = codec.decode(codec.encode(item));
+
+            assertThat(decoded.getBasePrice()).isEqualTo(new BigDecimal(price));
+            assertThat(decoded.getBasePrice().scale()).isEqualTo(new BigDecimal(price).scale());
+        }
+    }
+
+    @Test
+    void roundTripsNonAsciiText() {
+        BasketItem item = new BasketItem(3, "Çaydanlık ☕", BigDecimal.ONE, "Şirket", 1, ItemType.PHYSICAL, null);
+
+        assertThat(codec.decode(codec.encode(item))).isEqualTo(item);
+    }
+
+    @Test
+    void decodesTheJsonLayout() throws Exception {
+        BasketItem item = new BasketItem(42, "Kettle", new BigDecimal("129.90"), "Acme", 7, ItemType.PHYSICAL, null);
+        byte[] json = objectMapper.writeValueAsBytes(item);
+
+        assertThat(codec.decode(json)).isEqualTo(item);
+    }
+
+    @Test
+    void decodesJsonWithMissingFields() {
+        byte[] json = "{\"productId\":42,\"basePrice\":10.5}".getBytes(StandardCharsets.UTF_8);
+
+        BasketItem decoded = codec.decode(json);
+
+        assertThat(decoded.getProductId()).isEqualTo(42);
+        assertThat(decoded.getBasePrice()).isEqualByComparingTo("10.5");
+        assertThat(decoded.getProductName()).isNull();
+        assertThat(decoded.getItemType()).isNull();
+    }
+
+    @Test
+    void rejectsAnUnknownVersion() {
+        byte[] encoded = codec.encode(new BasketItem(1, "p", BigDecimal.ONE, null, null, null, null));
+        encoded[0] = 2;
+
+        assertThatThrownBy(() -> codec.decode(encoded))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("version: 2");
+    }
+
+    @Test
+    void rejectsATruncatedValue() {
+        byte[] encoded = codec.encode(new BasketItem(1, "Kettle", BigDecimal.ONE, "Acme", 7, null, null));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+
+        assertThatThrownBy(() -> codec.decode(truncated))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
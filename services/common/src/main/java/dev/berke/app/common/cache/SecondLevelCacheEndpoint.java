@@ -0,0 +1,63 @@
+package dev.berke.app.common.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// /actuator/secondlevelcache
+// GET: hits, misses and puts per hibernate cache region and for the query cache (same numbers as the
+//      hibernate.second.level.cache.* and hibernate.cache.query.* meters)
+// DELETE: drops all regions of this replica, for rows changed outside of hibernate (sql scripts)
+// changes made through hibernate invalidate the regions by themselves
+// registered by SecondLevelCacheAutoConfiguration, access is restricted by each service's security config
+@Endpoint(id = "secondlevelcache")
+@Slf4j
+public class SecondLevelCacheEndpoint {
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.put(region, new RegionStatistics(
+                        regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(),
+                        regionStatistics.getPutCount()
+                ));
+            }
+        }
+        regions.put("query-cache", new RegionStatistics(
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()
+        ));
+
+        return regions;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        log.info("Evicted all second level cache regions");
+    }
+
+    public record RegionStatistics(long hits, long misses, long puts) {
+    }
+}
@@ -0,0 +1,181 @@
+package dev.berke.app.common.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// single entry point for sending events to kafka
+// 1. idempotent producers (acks=all), built from the boot producer factory and its json type mappings
+// 2. topics listed under app.kafka.producer.topics get their own producer with
+//    their linger, batch size and compression, all others share the default one
+//    (all settings are described in KafkaProducerProperties)
+// 3. every send records the ack latency or a failure per topic, nothing is fire and forget
+// 4. publish() keeps records that failed (broker unreachable longer than the delivery timeout)
+//    in a bounded local buffer and resends them, send() leaves retries to the caller
+// the buffer lives in memory only, records still in it are lost on shutdown and a resent
+// record can overtake newer ones of the same key
+// registered by KafkaEventPublisherAutoConfiguration for every service with a kafka producer
+@Slf4j
+public class KafkaEventPublisher {
+
+    private final KafkaTemplate<String, Object> defaultTemplate;
+    private final Map<String, KafkaTemplate<String, Object>> topicTemplates = new HashMap<>();
+    private final BlockingQueue<PendingRecord> retryBuffer;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+
+    public KafkaEventPublisher(
+            ProducerFactory<String, Object> producerFactory,
+            KafkaProducerProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = properties.retry().maxAttempts();
+        this.retryBuffer = new ArrayBlockingQueue<>(properties.retry().bufferCapacity());
+
+        // a send blocks the caller while there is no metadata, keep that short and buffer instead
+        Map<String, Object> reliability = Map.of(
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, properties.maxBlockMs()
+        );
+        this.defaultTemplate = new KafkaTemplate<>(producerFactory, reliability);
+
+        properties.topics().forEach((topic, settings) -> {
+            Map<String, Object> overrides = new HashMap<>(reliability);
+            overrides.putAll(settings.toProducerConfig());
+            topicTemplates.put(topic, new KafkaTemplate<>(producerFactory, overrides));
+            log.info("Kafka producer for topic {} uses {}", topic, settings);
+        });
+
+        Gauge.builder("kafka.producer.retry.buffer", retryBuffer, Collection::size)
+                .description("Records waiting in the local retry buffer")
+                .register(meterRegistry);
+    }
+
+    // fire and track, failed records are retried from the local buffer
+    public void publish(String topic, String key, Object payload) {
+        PendingRecord record = new PendingRecord(topic, key, payload, 1);
+        send(topic, key, payload).whenComplete((result, ex) -> {
+            if (ex != null) {
+                buffer(record, ex);
+            }
+        });
+    }
+
+    // for callers that wait for the ack and retry by themselves (outbox, bulk jobs)
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object payload) {
+        long startedAt = System.nanoTime();
+
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = templateFor(topic).send(topic, key, payload);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                ackLatency(topic).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            } else {
+                failures(topic).increment();
+                log.warn("Kafka send to topic: {} with key: {} failed: {}", topic, key, ex.getMessage());
+            }
+        });
+    }
+
+    // last batch of a caller that waits for its acks, skips linger.ms
+    public void flush(String topic) {
+        templateFor(topic).flush();
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.producer.retry.interval-ms:1000}")
+    public void retryBuffered() {
+        int pending = retryBuffer.size();
+
+        for (int i = 0; i < pending; i++) {
+            PendingRecord record = retryBuffer.poll();
+            if (record == null) {
+                return;
+            }
+
+            CompletableFuture<SendResult<String, Object>> future = send(record.topic(), record.key(), record.payload());
+            future.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    buffer(record.nextAttempt(), ex);
+                }
+            });
+
+            // failed right away, the broker is still unreachable, the rest waits for the next run
+            if (future.isCompletedExceptionally()) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (!retryBuffer.isEmpty()) {
+            log.error("{} kafka records are still in the retry buffer and are lost on shutdown", retryBuffer.size());
+        }
+
+        defaultTemplate.getProducerFactory().reset();
+        topicTemplates.values().forEach(template -> template.getProducerFactory().reset());
+    }
+
+    private void buffer(PendingRecord record, Throwable ex) {
+        if (record.attempts() >= maxAttempts || !retryBuffer.offer(record)) {
+            dropped(record.topic()).increment();
+            log.error("Dropping kafka record for topic: {} with key: {} after {} attempts",
+                    record.topic(), record.key(), record.attempts(), ex);
+        }
+    }
+
+    private KafkaTemplate<String, Object> templateFor(String topic) {
+        return topicTemplates.getOrDefault(topic, defaultTemplate);
+    }
+
+    private Timer ackLatency(String topic) {
+        return Timer.builder("kafka.producer.ack.latency")
+                .description("Time from send until the broker acknowledged the record")
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    private Counter failures(String topic) {
+        return Counter.builder("kafka.producer.send.failures")
+                .description("Sends that were not acknowledged")
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    private Counter dropped(String topic) {
+        return Counter.builder("kafka.producer.dropped")
+                .description("Records given up after the retry attempts or with a full retry buffer")
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    private record PendingRecord(String topic, String key, Object payload, int attempts) {
+
+        PendingRecord nextAttempt() {
+            return new PendingRecord(topic, key, payload, attempts + 1);
+        }
+    }
+}
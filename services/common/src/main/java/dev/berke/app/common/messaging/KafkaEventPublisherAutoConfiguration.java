@@ -0,0 +1,31 @@
+package dev.berke.app.common.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+// one KafkaEventPublisher per service, built on the producer factory of spring.kafka.producer
+// the periodic resend of buffered records needs @EnableScheduling in the service
+@AutoConfiguration(after = KafkaAutoConfiguration.class)
+@ConditionalOnClass({KafkaTemplate.class, MeterRegistry.class})
+@ConditionalOnBean(ProducerFactory.class)
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+public class KafkaEventPublisherAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaEventPublisher kafkaEventPublisher(
+            ProducerFactory<String, Object> producerFactory,
+            KafkaProducerProperties kafkaProducerProperties,
+            MeterRegistry meterRegistry
+    ) {
+        return new KafkaEventPublisher(producerFactory, kafkaProducerProperties, meterRegistry);
+    }
+}
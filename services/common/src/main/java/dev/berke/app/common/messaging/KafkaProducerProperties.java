@@ -0,0 +1,53 @@
+package dev.berke.app.common.messaging;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// every setting of KafkaEventPublisher, bound from app.kafka.producer
+// the values shared by all services are in the config server's application.yml,
+// a service config only lists its own topics (connection and serializers stay under spring.kafka.producer)
+// idempotence and acks=all are not configurable, see KafkaEventPublisher
+@ConfigurationProperties("app.kafka.producer")
+public record KafkaProducerProperties(
+        // how long a send may block the caller while the broker metadata is missing
+        @DefaultValue("5000") int maxBlockMs,
+        @DefaultValue Retry retry,
+        // topic name -> batching of its own producer, topics not listed share the default producer
+        Map<String, TopicSettings> topics
+) {
+
+    public KafkaProducerProperties {
+        topics = topics == null ? Map.of() : Map.copyOf(topics);
+    }
+
+    // local resend buffer of publish(), send() callers retry by themselves
+    public record Retry(
+            @DefaultValue("10000") int bufferCapacity,
+            @DefaultValue("5") int maxAttempts,
+            // read by the @Scheduled resend through its placeholder
+            @DefaultValue("1000") long intervalMs
+    ) {
+    }
+
+    // unset values keep the producer defaults
+    public record TopicSettings(Integer lingerMs, Integer batchSize, String compressionType) {
+
+        Map<String, Object> toProducerConfig() {
+            Map<String, Object> config = new HashMap<>();
+            if (lingerMs != null) {
+                config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+            }
+            if (batchSize != null) {
+                config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+            }
+            if (compressionType != null) {
+                config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+            }
+            return config;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.berke.app.common.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+// kafka message written in the same transaction as the change it announces, relayed afterwards
+// failed sends are retried with a backoff, rows that keep failing are parked (parked_at set)
+// and stay in the table as dead letters, clearing parked_at and attempts replays them
+// each service maps it to its own table with an @Entity subclass that declares
+// the @Table (with an index on message_key, id) and the outbox_seq sequence generator
+// createdDate needs @EnableJpaAuditing in the service
+@Getter
+@Setter
+@MappedSuperclass
+@EntityListeners(AuditingEntityListener.class)
+public abstract class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "payload_type", nullable = false)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "parked_at")
+    private Instant parkedAt;
+
+    @CreatedDate
+    @Column(name = "created_date", updatable = false, nullable = false)
+    private Instant createdDate;
+}
@@ -0,0 +1,41 @@
+package dev.berke.app.common.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+// extended by a repository per service for its outbox entity, #{#entityName} resolves to that entity
+@NoRepositoryBean
+public interface OutboxEventRepository<E extends OutboxEvent> extends JpaRepository<E, Long> {
+
+    // lock timeout -2 is hibernate's SKIP LOCKED, so concurrent relays take disjoint batches
+    // only the oldest unparked row of a key is returned, and only once its backoff is over,
+    // later events of the key wait behind it (served by the message_key, id index of the table)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT e FROM #{#entityName} e
+            WHERE e.parkedAt IS NULL
+              AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now)
+              AND NOT EXISTS (
+                  SELECT p FROM #{#entityName} p
+                  WHERE p.messageKey = e.messageKey AND p.parkedAt IS NULL AND p.id < e.id
+              )
+            ORDER BY e.id
+            """)
+    List<E> findNextBatch(@Param("now") Instant now, Pageable pageable);
+
+    Optional<E> findFirstByParkedAtIsNullOrderByIdAsc();
+
+    long countByParkedAtIsNotNull();
+}
@@ -0,0 +1,212 @@
+package dev.berke.app.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.common.messaging.KafkaEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// drains the outbox table of a service to kafka in batches
+// 1. lock the next batch (skip locked, so replicas do not double send), at most one row per key
+// 2. send the whole batch and let the producer group it
+// 3. wait for the acks and delete the rows that were delivered
+// 4. rows that failed stay in the table with an exponential backoff, later rows of the same key
+//    are not sent until they are delivered or parked
+// 5. rows that cannot be sent at all (unreadable payload, rejected record) or that used up
+//    max-attempts are parked and no longer block their key
+// registered by the service with the repository of its outbox entity and a metric prefix,
+// the meters are <prefix>.published, .failed, .parked, .parked.rows, .batch and .lag
+// needs @EnableScheduling in the service
+@Slf4j
+public class OutboxRelay<E extends OutboxEvent> {
+
+    private final OutboxEventRepository<E> outboxEventRepository;
+    private final KafkaEventPublisher kafkaEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public OutboxRelay(
+            String metricPrefix,
+            OutboxEventRepository<E> outboxEventRepository,
+            KafkaEventPublisher kafkaEventPublisher,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            OutboxRelayProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaEventPublisher = kafkaEventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.batchSize();
+        this.sendTimeoutMs = properties.sendTimeoutMs();
+        this.maxAttempts = properties.maxAttempts();
+        this.initialBackoff = properties.backoff().initial();
+        this.maxBackoff = properties.backoff().max();
+
+        this.publishedCounter = Counter.builder(metricPrefix + ".published")
+                .description("Outbox events delivered to kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(metricPrefix + ".failed")
+                .description("Outbox events that could not be delivered and are retried")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder(metricPrefix + ".parked")
+                .description("Outbox events given up and parked as dead letters")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".parked.rows", outboxEventRepository,
+                        OutboxEventRepository::countByParkedAtIsNotNull)
+                .description("Parked outbox events waiting for a manual replay")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder(metricPrefix + ".batch")
+                .description("Time to relay one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest event still waiting in the outbox")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    // linger between drains when the outbox runs empty, full batches are drained back to back
+    @Scheduled(fixedDelayString = "${app.outbox.relay.linger-ms:200}")
+    public void drain() {
+        int relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> batchTimer.record(this::relayBatch));
+        } while (relayed == batchSize);
+
+        updateLag();
+    }
+
+    private int relayBatch() {
+        Instant now = Instant.now();
+        List<E> batch = outboxEventRepository.findNextBatch(now, Pageable.ofSize(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(batch.size());
+        for (E event : batch) {
+            futures.add(send(event));
+        }
+
+        List<E> delivered = new ArrayList<>(batch.size());
+        int failed = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+
+        for (int i = 0; i < batch.size(); i++) {
+            E event = batch.get(i);
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(event);
+            } catch (ExecutionException e) {
+                failed++;
+                recordFailure(event, e.getCause(), now);
+            } catch (TimeoutException e) {
+                failed++;
+                recordFailure(event, e, now);
+            } catch (InterruptedException e) {
+                // shutdown, the rows not checked yet are sent again by the next relay
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // failed rows are managed entities, their attempts and backoff are flushed on commit
+        outboxEventRepository.deleteAllInBatch(delivered);
+
+        publishedCounter.increment(delivered.size());
+        failedCounter.increment(failed);
+        log.debug("Relayed {}/{} outbox events", delivered.size(), batch.size());
+
+        // a partially failed batch stops the drain loop until the next scheduled run
+        return delivered.size() == batch.size() ? batch.size() : 0;
+    }
+
+    private void recordFailure(OutboxEvent event, Throwable cause, Instant now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(abbreviate(String.valueOf(cause)));
+
+        if (isPoison(cause) || attempts >= maxAttempts) {
+            event.setParkedAt(now);
+            parkedCounter.increment();
+            log.error("Parking outbox event {} for topic: {} with key: {} after {} attempts",
+                    event.getId(), event.getTopic(), event.getMessageKey(), attempts, cause);
+            return;
+        }
+
+        event.setNextAttemptAt(now.plus(backoff(attempts)));
+        log.warn("Outbox event {} for topic: {} not delivered (attempt {}), retrying at {}",
+                event.getId(), event.getTopic(), attempts, event.getNextAttemptAt(), cause);
+    }
+
+    // initial, 2x, 4x ... capped at the max backoff
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    // failures a resend cannot fix
+    private static boolean isPoison(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof JsonProcessingException
+                    || t instanceof ClassNotFoundException
+                    || t instanceof SerializationException
+                    || t instanceof RecordTooLargeException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+
+            // no buffered retries here, undelivered rows stay in the outbox
+            return kafkaEventPublisher.send(event.getTopic(), event.getMessageKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void updateLag() {
+        lagMillis.set(outboxEventRepository.findFirstByParkedAtIsNullOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedDate(), Instant.now()).toMillis())
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,27 @@
+package dev.berke.app.common.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// settings of OutboxRelay, bound from app.outbox.relay of the service
+@ConfigurationProperties("app.outbox.relay")
+public record OutboxRelayProperties(
+        // rows locked and sent per transaction
+        @DefaultValue("100") int batchSize,
+        // read by the @Scheduled drain through its placeholder
+        @DefaultValue("200") long lingerMs,
+        // how long a batch waits for its acks before the rest count as failed
+        @DefaultValue("10000") long sendTimeoutMs,
+        // failed sends of a row before it is parked
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue Backoff backoff
+) {
+
+    public record Backoff(
+            @DefaultValue("1s") Duration initial,
+            @DefaultValue("5m") Duration max
+    ) {
+    }
+}
@@ -0,0 +1,46 @@
+package dev.berke.app.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+// writes events to the outbox table of the service, OutboxRelay sends them to kafka
+// registered by the service with the repository and constructor of its outbox entity
+@Slf4j
+public class OutboxService<E extends OutboxEvent> {
+
+    private final OutboxEventRepository<E> outboxEventRepository;
+    private final Supplier<E> newEvent;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(
+            OutboxEventRepository<E> outboxEventRepository,
+            Supplier<E> newEvent,
+            ObjectMapper objectMapper
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.newEvent = newEvent;
+        this.objectMapper = objectMapper;
+    }
+
+    // joins the caller's transaction, the event is only visible to the relay once the caller commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void enqueue(String topic, String key, T payload) {
+        try {
+            E event = newEvent.get();
+            event.setTopic(topic);
+            event.setMessageKey(key);
+            event.setPayloadType(payload.getClass().getName());
+            event.setPayload(objectMapper.writeValueAsString(payload));
+            outboxEventRepository.save(event);
+
+            log.debug("Queued {} for topic: {}", payload.getClass().getSimpleName(), topic);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload for topic: " + topic, e);
+        }
+    }
+}
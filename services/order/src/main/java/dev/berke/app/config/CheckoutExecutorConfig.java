@@ -0,0 +1,42 @@
+package dev.berke.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class CheckoutExecutorConfig {
+
+    // one virtual thread per upstream lookup, the tasks only block on feign i/o
+    @Bean
+    public AsyncTaskExecutor checkoutLookupExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("checkout-lookup-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        return executor;
+    }
+
+    // bounded pool for accepted orders waiting on payment
+    // when the queue is full the request thread runs the payment itself, which slows down new acceptances
+    @Bean
+    public AsyncTaskExecutor orderPaymentExecutor(
+            @Value("${app.order.async-acceptance.pool-size:8}") int poolSize,
+            @Value("${app.order.async-acceptance.queue-capacity:200}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("order-payment-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,61 @@
+package dev.berke.app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+// snapshot of the headers forwarded on feign calls
+// a copy is bound to worker threads, because the servlet request may already be recycled there
+public record IdentityHeaders(
+        String authorization,
+        String customerId,
+        String roles,
+        String email
+) {
+    // header names are same with gateway's UserHeaderFilter values
+    public static final String HEADER_CUSTOMER_ID = "X-User-CustomerId";
+    public static final String HEADER_ROLES = "X-User-Roles";
+    public static final String HEADER_EMAIL = "X-User-Email";
+
+    private static final ThreadLocal<IdentityHeaders> BOUND = new ThreadLocal<>();
+
+    // bound snapshot first, then the current servlet request
+    public static Optional<IdentityHeaders> current() {
+        IdentityHeaders bound = BOUND.get();
+        if (bound != null) {
+            return Optional.of(bound);
+        }
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return Optional.of(fromRequest(attributes.getRequest()));
+        }
+        return Optional.empty();
+    }
+
+    public static IdentityHeaders fromRequest(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        return new IdentityHeaders(
+                authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                        ? authorizationHeader : null,
+                request.getHeader(HEADER_CUSTOMER_ID),
+                request.getHeader(HEADER_ROLES),
+                request.getHeader(HEADER_EMAIL)
+        );
+    }
+
+    public static Optional<IdentityHeaders> bound() {
+        return Optional.ofNullable(BOUND.get());
+    }
+
+    public static void bind(IdentityHeaders identityHeaders) {
+        BOUND.set(identityHeaders);
+    }
+
+    public static void clear() {
+        BOUND.remove();
+    }
+}
@@ -0,0 +1,54 @@
+package dev.berke.app.config;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+// copies the caller's identity headers, security context and MDC into forked tasks,
+// so FeignClientInterceptor can still forward the identity headers from a worker thread
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        IdentityHeaders identityHeaders = IdentityHeaders.current().orElse(null);
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        return () -> {
+            // saved and restored, the task may also run on the caller thread (CallerRunsPolicy)
+            IdentityHeaders previousIdentityHeaders = IdentityHeaders.bound().orElse(null);
+            SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+
+            apply(identityHeaders, securityContext, mdc);
+            try {
+                runnable.run();
+            } finally {
+                apply(previousIdentityHeaders, previousSecurityContext, previousMdc);
+            }
+        };
+    }
+
+    private static void apply(
+            IdentityHeaders identityHeaders,
+            SecurityContext securityContext,
+            Map<String, String> mdc
+    ) {
+        if (identityHeaders != null) {
+            IdentityHeaders.bind(identityHeaders);
+        } else {
+            IdentityHeaders.clear();
+        }
+
+        SecurityContextHolder.setContext(securityContext);
+
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+    }
+}
@@ -1,38 +1,77 @@
 package dev.berke.app.order.api;
 
+import dev.berke.app.order.api.dto.OrderDetailResponse;
+import dev.berke.app.order.api.dto.OrderExportFormat;
+import dev.berke.app.order.api.dto.OrderFilterRequest;
+import dev.berke.app.order.api.dto.OrderPageResponse;
 import dev.berke.app.order.api.dto.OrderRequest;
 import dev.berke.app.order.api.dto.OrderResponse;
+import dev.berke.app.order.api.dto.OrderStatusResponse;
+import dev.berke.app.order.application.OrderExportService;
+import dev.berke.app.order.application.OrderIdempotencyService;
 import dev.berke.app.order.application.OrderService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/orders")
+@Validated
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderIdempotencyService orderIdempotencyService;
+
+    // 202 with a status url instead of waiting for the payment
+    @Value("${app.order.async-acceptance.enabled:false}")
+    private boolean asyncAcceptance;
 
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<OrderResponse> createOrder(
             @RequestBody @Valid OrderRequest orderRequest,
-            @AuthenticationPrincipal String customerIdPrincipal
+            @AuthenticationPrincipal String customerIdPrincipal,
+            @Size(max = 255, message = "Idempotency-Key must not exceed 255 characters")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
-        OrderResponse orderResponse = orderService.createOrder(orderRequest, customerIdPrincipal);
+        if (asyncAcceptance) {
+            OrderResponse orderResponse = idempotent(customerIdPrincipal, idempotencyKey, orderRequest,
+                    () -> orderService.acceptOrder(orderRequest, customerIdPrincipal));
+
+            URI statusLocation = ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .path("/{id}/status")
+                    .buildAndExpand(orderResponse.orderId())
+                    .toUri();
+
+            return ResponseEntity.accepted().location(statusLocation).body(orderResponse);
+        }
+
+        OrderResponse orderResponse = idempotent(customerIdPrincipal, idempotencyKey, orderRequest,
+                () -> orderService.createOrder(orderRequest, customerIdPrincipal));
 
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequest()
@@ -43,17 +82,59 @@ public class OrderController {
         return ResponseEntity.created(location).body(orderResponse);
     }
 
+    // retries with the same Idempotency-Key get the first response instead of a second checkout
+    private OrderResponse idempotent(
+            String customerId,
+            String idempotencyKey,
+            OrderRequest orderRequest,
+            Supplier<OrderResponse> checkout
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return checkout.get();
+        }
+        return orderIdempotencyService.execute(customerId, idempotencyKey, orderRequest, checkout);
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('BACKOFFICE')")
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<OrderPageResponse> getOrders(
+            @ModelAttribute OrderFilterRequest filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Min(value = 1, message = "Page size must not be less than one")
+            @Max(value = 200, message = "Page size must not exceed 200")
+            @RequestParam(value = "size", defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(orderService.getOrders(filter, cursor, size));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('BACKOFFICE')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @ModelAttribute OrderFilterRequest filter,
+            @RequestParam(value = "format", defaultValue = "NDJSON") OrderExportFormat format
+    ) {
+        StreamingResponseBody body = outputStream ->
+                orderExportService.export(filter, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(body);
     }
 
     @GetMapping("/{orderId}")
     @PreAuthorize("hasRole('BACKOFFICE')")
-    public ResponseEntity<OrderResponse> getOrderById(
+    public ResponseEntity<OrderDetailResponse> getOrderById(
             @PathVariable("orderId") Integer orderId
     ) {
         return ResponseEntity.ok(orderService.getOrderById(orderId));
     }
+
+    @GetMapping("/{orderId}/status")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<OrderStatusResponse> getOrderStatus(
+            @PathVariable("orderId") Integer orderId,
+            @AuthenticationPrincipal String customerIdPrincipal
+    ) {
+        return ResponseEntity.ok(orderService.getOrderStatus(orderId, customerIdPrincipal));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package dev.berke.app.order.api.dto;
+
+import dev.berke.app.order.domain.model.OrderStatus;
+import dev.berke.app.order.infrastructure.client.payment.PaymentMethod;
+import dev.berke.app.orderline.api.dto.OrderlineResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+// order with its lines, read with a single join fetch query
+public record OrderDetailResponse(
+        Integer orderId,
+        String reference,
+        String customerId,
+        String customerEmail,
+        BigDecimal totalAmount,
+        PaymentMethod paymentMethod,
+        OrderStatus status,
+        Instant createdDate,
+        Instant lastModifiedDate,
+        List<OrderlineResponse> orderlines
+) {
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package dev.berke.app.order.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record OrderExportRow(
+        Integer id,
+        String reference,
+        String customerId,
+        String customerEmail,
+        BigDecimal totalAmount,
+        String paymentMethod,
+        String status,
+        Instant createdDate,
+        Instant lastModifiedDate
+) {
+}
@@ -0,0 +1,20 @@
+package dev.berke.app.order.api.dto;
+
+import dev.berke.app.order.domain.model.OrderStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+
+// optional query parameters for backoffice listing and export, created date range is [from, to)
+public record OrderFilterRequest(
+        OrderStatus status,
+
+        String customerId,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        Instant from,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        Instant to
+) {
+}
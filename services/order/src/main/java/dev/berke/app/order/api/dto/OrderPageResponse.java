@@ -0,0 +1,10 @@
+package dev.berke.app.order.api.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record OrderPageResponse(
+        List<OrderResponse> orders,
+        String nextCursor
+) {
+}
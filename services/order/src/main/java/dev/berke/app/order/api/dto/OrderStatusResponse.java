@@ -0,0 +1,13 @@
+package dev.berke.app.order.api.dto;
+
+import dev.berke.app.order.domain.model.OrderStatus;
+
+import java.time.Instant;
+
+public record OrderStatusResponse(
+        Integer orderId,
+        String reference,
+        OrderStatus status,
+        Instant lastModifiedDate
+) {
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package dev.berke.app.order.application;
+
+import dev.berke.app.shared.exception.InvalidOrderRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+// keyset position of the last order on a page, (created_date, id) is unique and indexed
+public record OrderCursor(
+        Instant createdDate,
+        Integer id
+) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+
+            return new OrderCursor(
+                    Instant.parse(raw.substring(0, separatorIndex)),
+                    Integer.valueOf(raw.substring(separatorIndex + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidOrderRequestException("Invalid order cursor: " + cursor);
+        }
+    }
+}
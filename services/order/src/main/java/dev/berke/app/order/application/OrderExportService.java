@@ -0,0 +1,157 @@
+package dev.berke.app.order.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.order.api.dto.OrderExportFormat;
+import dev.berke.app.order.api.dto.OrderExportRow;
+import dev.berke.app.order.api.dto.OrderFilterRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// streams orders straight from a jdbc cursor to the response, memory stays flat for any table size
+// postgres only uses a server side cursor with a fetch size when autocommit is off, hence the transaction
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final String CSV_HEADER =
+            "id,reference,customer_id,customer_email,total_amount,payment_method,status,created_date,last_modified_date\n";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${app.order.export.fetch-size:500}") int fetchSize
+    ) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(OrderFilterRequest filter, OrderExportFormat format, OutputStream outputStream) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, reference, customer_id, customer_email, total_amount,
+                       payment_method, status, created_date, last_modified_date
+                FROM orders
+                WHERE 1 = 1
+                """);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        if (filter.status() != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        if (filter.customerId() != null) {
+            sql.append(" AND customer_id = :customerId");
+            params.addValue("customerId", filter.customerId());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND created_date >= :from");
+            params.addValue("from", Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND created_date < :to");
+            params.addValue("to", Timestamp.from(filter.to()));
+        }
+        sql.append(" ORDER BY created_date, id");
+
+        BufferedOutputStream out = new BufferedOutputStream(outputStream);
+        RowCallbackHandler rowWriter = format == OrderExportFormat.CSV
+                ? rs -> write(out, toCsvLine(toRow(rs)))
+                : rs -> write(out, toJsonLine(toRow(rs)));
+
+        if (format == OrderExportFormat.CSV) {
+            write(out, CSV_HEADER);
+        }
+
+        jdbcTemplate.query(sql.toString(), params, rowWriter);
+        flush(out);
+    }
+
+    private OrderExportRow toRow(ResultSet rs) throws SQLException {
+        return new OrderExportRow(
+                rs.getInt("id"),
+                rs.getString("reference"),
+                rs.getString("customer_id"),
+                rs.getString("customer_email"),
+                rs.getBigDecimal("total_amount"),
+                rs.getString("payment_method"),
+                rs.getString("status"),
+                toInstant(rs.getTimestamp("created_date")),
+                toInstant(rs.getTimestamp("last_modified_date"))
+        );
+    }
+
+    private Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private String toJsonLine(OrderExportRow row) {
+        try {
+            return objectMapper.writeValueAsString(row) + "\n";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toCsvLine(OrderExportRow row) {
+        return String.join(",",
+                String.valueOf(row.id()),
+                csv(row.reference()),
+                csv(row.customerId()),
+                csv(row.customerEmail()),
+                row.totalAmount() == null ? "" : row.totalAmount().toPlainString(),
+                csv(row.paymentMethod()),
+                csv(row.status()),
+                row.createdDate() == null ? "" : row.createdDate().toString(),
+                row.lastModifiedDate() == null ? "" : row.lastModifiedDate().toString()
+        ) + "\n";
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private void write(OutputStream out, String line) {
+        try {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
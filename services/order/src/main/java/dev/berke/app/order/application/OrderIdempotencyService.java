@@ -0,0 +1,250 @@
+package dev.berke.app.order.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.order.api.dto.OrderResponse;
+import dev.berke.app.shared.exception.IdempotencyConflictException;
+import dev.berke.app.shared.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Idempotency-Key handling for order creation
+// 1. the first request claims the key with an IN_FLIGHT marker (SET NX) and runs the checkout,
+//    the marker carries a random token and the fingerprint of the request body
+// 2. on success the OrderResponse is stored under the key for the result ttl
+// 3. on failure the key is released, so the client can retry
+// 4. duplicates return the stored response, or wait while the first request is still running
+// 5. the same key with a different body is rejected with 422
+// storing and releasing only touch the key while it still holds this request's marker,
+// a marker that expired and was claimed by a retry is left alone
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+
+    private static final String KEY_PREFIX = "order:idempotency:";
+
+    // ARGV: expected value, new value, ttl in milliseconds
+    private static final RedisScript<Long> REPLACE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    // ARGV: expected value
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter conflictCounter;
+    private final Counter mismatchCounter;
+
+    @Value("${app.order.idempotency.result-ttl:24h}")
+    private Duration resultTtl;
+
+    // must outlive a checkout including the payment call, otherwise a retry could run it twice
+    @Value("${app.order.idempotency.in-flight-ttl:60s}")
+    private Duration inFlightTtl;
+
+    @Value("${app.order.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    public OrderIdempotencyService(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+
+        this.hitCounter = counter(meterRegistry, "hit");
+        this.missCounter = counter(meterRegistry, "miss");
+        this.conflictCounter = counter(meterRegistry, "conflict");
+        this.mismatchCounter = counter(meterRegistry, "mismatch");
+    }
+
+    public OrderResponse execute(
+            String customerId,
+            String idempotencyKey,
+            Object request,
+            Supplier<OrderResponse> checkout
+    ) {
+        String key = KEY_PREFIX + customerId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        String inFlight = write(IdempotencyRecord.inFlight(UUID.randomUUID().toString(), fingerprint));
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long backoffMillis = 50;
+
+        while (true) {
+            Boolean claimed;
+            try {
+                claimed = redisTemplate.opsForValue().setIfAbsent(key, inFlight, inFlightTtl);
+            } catch (DataAccessException e) {
+                // redis is only a guard here, checkout keeps working without it
+                log.error("Redis error while claiming idempotency key, continuing without it", e);
+                return checkout.get();
+            }
+
+            if (Boolean.TRUE.equals(claimed)) {
+                missCounter.increment();
+                return runAndStore(key, inFlight, fingerprint, checkout);
+            }
+
+            IdempotencyRecord record = find(key);
+            if (record != null) {
+                // records written before fingerprints were stored have none and are not checked
+                if (record.fingerprint() != null && !record.fingerprint().equals(fingerprint)) {
+                    mismatchCounter.increment();
+                    throw new IdempotencyKeyMismatchException(String.format(
+                            "Idempotency-Key %s was already used with a different request body.", idempotencyKey));
+                }
+
+                if (record.response() != null) {
+                    hitCounter.increment();
+                    log.info("Returning stored order response for idempotency key: {}", idempotencyKey);
+                    return record.response();
+                }
+            }
+
+            // still in flight (or just released, or unreadable for now), wait and claim again
+            if (System.nanoTime() > deadline) {
+                conflictCounter.increment();
+                throw new IdempotencyConflictException(String.format(
+                        "A request with Idempotency-Key %s is still in progress.", idempotencyKey));
+            }
+            sleep(backoffMillis);
+            backoffMillis = Math.min(backoffMillis * 2, 500);
+        }
+    }
+
+    private OrderResponse runAndStore(
+            String key,
+            String inFlight,
+            String fingerprint,
+            Supplier<OrderResponse> checkout
+    ) {
+        OrderResponse response;
+        try {
+            response = checkout.get();
+        } catch (RuntimeException e) {
+            release(key, inFlight);
+            throw e;
+        }
+
+        try {
+            Long stored = redisTemplate.execute(REPLACE_SCRIPT, List.of(key), inFlight,
+                    write(IdempotencyRecord.completed(fingerprint, response)),
+                    String.valueOf(resultTtl.toMillis()));
+            if (!Long.valueOf(1).equals(stored)) {
+                log.warn("Idempotency marker expired before the order response could be stored");
+            }
+        } catch (DataAccessException e) {
+            log.error("Redis error while storing idempotent order response", e);
+        }
+        return response;
+    }
+
+    private void release(String key, String inFlight) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), inFlight);
+        } catch (DataAccessException e) {
+            log.error("Redis error while releasing idempotency key, it expires after {}", inFlightTtl, e);
+        }
+    }
+
+    // null when the key is gone or cannot be read right now, the caller waits and claims again
+    private IdempotencyRecord find(String key) {
+        String stored;
+        try {
+            stored = redisTemplate.opsForValue().get(key);
+        } catch (DataAccessException e) {
+            log.warn("Redis error while reading idempotency key, retrying", e);
+            return null;
+        }
+
+        if (stored == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(stored, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            // not written by this service, drop it so the key can be claimed again
+            log.error("Unreadable idempotency record under {}, removing it", key, e);
+            release(key, stored);
+            return null;
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint idempotent request", e);
+        }
+    }
+
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize idempotency record", e);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the original request.");
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order.idempotency.requests")
+                .description("Order creations by Idempotency-Key lookup result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // response is null while the first request is still running,
+    // token makes every in-flight marker unique so only its owner can replace or release it
+    record IdempotencyRecord(
+            String token,
+            String fingerprint,
+            OrderResponse response
+    ) {
+        static IdempotencyRecord inFlight(String token, String fingerprint) {
+            return new IdempotencyRecord(token, fingerprint, null);
+        }
+
+        static IdempotencyRecord completed(String fingerprint, OrderResponse response) {
+            return new IdempotencyRecord(null, fingerprint, response);
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package dev.berke.app.order.application;
 
-import dev.berke.app.order.infrastructure.client.basket.BasketResponse;
+import dev.berke.app.order.infrastructure.client.basket.BasketCheckoutResponse;
 import dev.berke.app.order.infrastructure.client.customer.Address;
 import dev.berke.app.order.infrastructure.client.customer.CustomerClient;
 import dev.berke.app.order.infrastructure.client.customer.CustomerResponse;
 import dev.berke.app.order.domain.event.OrderCreatedEvent;
 import dev.berke.app.order.domain.event.OrderReceivedEvent;
 import dev.berke.app.order.infrastructure.messaging.OrderEventProducer;
+import dev.berke.app.order.api.dto.OrderDetailResponse;
+import dev.berke.app.order.api.dto.OrderFilterRequest;
+import dev.berke.app.order.api.dto.OrderPageResponse;
 import dev.berke.app.order.api.dto.OrderRequest;
 import dev.berke.app.order.api.dto.OrderResponse;
+import dev.berke.app.order.api.dto.OrderStatusResponse;
 import dev.berke.app.order.application.mapper.OrderMapper;
 import dev.berke.app.order.domain.model.Order;
 import dev.berke.app.order.domain.model.OrderStatus;
 import dev.berke.app.order.domain.repository.OrderRepository;
+import dev.berke.app.order.domain.repository.OrderSpecifications;
 import dev.berke.app.order.infrastructure.client.basket.BasketClient;
 import dev.berke.app.order.infrastructure.client.basket.BasketItem;
 import dev.berke.app.orderline.api.dto.OrderlineRequest;
@@ -22,13 +27,29 @@ import dev.berke.app.shared.exception.ExternalServiceException;
 import dev.berke.app.shared.exception.InvalidOrderRequestException;
 import dev.berke.app.shared.exception.OrderNotFoundException;
 import dev.berke.app.shared.exception.PaymentProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,6 +64,14 @@ public class OrderService {
     private final BasketClient basketClient;
     private final PaymentClient paymentClient;
     private final OrderEventProducer orderEventProducer;
+    private final AsyncTaskExecutor checkoutLookupExecutor;
+    private final AsyncTaskExecutor orderPaymentExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // customer, basket and total price lookups are independent of each other
+    @Value("${app.order.checkout.parallel-lookups:false}")
+    private boolean parallelLookups;
 
     // Business logic to create order
     // 1. validate external data (customer and basket)
@@ -58,21 +87,26 @@ public class OrderService {
     public OrderResponse createOrder(OrderRequest orderRequest, String customerId) {
 
         // 1. validate external data
-        CustomerResponse customer = validateAndGetCustomer(customerId);
-        BasketResponse basket = validateAndGetBasket();
-        BigDecimal totalPrice = calculateTotalPrice();
+        CheckoutData checkoutData = timed("lookups", () -> parallelLookups
+                ? lookupCheckoutDataConcurrently(customerId)
+                : lookupCheckoutData(customerId));
+
+        CustomerResponse customer = checkoutData.customer();
+        BasketCheckoutResponse basket = checkoutData.basket();
+        BigDecimal totalPrice = checkoutData.totalPrice();
 
         log.info("Starting order process for customer: {} with total: {}", customer.id(), totalPrice);
 
         // 2. create initial order (Status: PENDING_PAYMENT)
-        Order savedOrder = persistInitialOrder(orderRequest, customer, basket, totalPrice);
+        Order savedOrder = timed("persist", () ->
+                persistInitialOrder(orderRequest, customer, basket, totalPrice));
 
         try {
             // 3. initiate payment
-            processPayment(savedOrder);
+            timed("payment", () -> processPayment(savedOrder, basket.contentHash()));
 
             // 4. if payment received
-            finalizeOrder(savedOrder, customer, basket);
+            timed("finalize", () -> finalizeOrder(savedOrder, customer, basket));
 
         } catch (PaymentProcessingException e) {
             handlePaymentError(savedOrder); // 7. if payment failed
@@ -82,21 +116,125 @@ public class OrderService {
         return orderMapper.fromOrder(savedOrder);
     }
 
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll()
-                .stream()
-                .map(orderMapper::fromOrder)
-                .collect(Collectors.toList());
+    // Async acceptance (app.order.async-acceptance.enabled)
+    // steps 1 and 2 run on the request thread and commit the PENDING_PAYMENT order,
+    // steps 3 to 7 run on orderPaymentExecutor once that commit is done
+
+    @Transactional
+    public OrderResponse acceptOrder(OrderRequest orderRequest, String customerId) {
+        CheckoutData checkoutData = timed("lookups", () -> parallelLookups
+                ? lookupCheckoutDataConcurrently(customerId)
+                : lookupCheckoutData(customerId));
+
+        log.info("Accepting order for customer: {} with total: {}",
+                checkoutData.customer().id(), checkoutData.totalPrice());
+
+        Order savedOrder = timed("persist", () -> persistInitialOrder(
+                orderRequest, checkoutData.customer(), checkoutData.basket(), checkoutData.totalPrice()));
+
+        Integer orderId = savedOrder.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderPaymentExecutor.execute(() -> completeAcceptedOrder(orderId, checkoutData));
+            }
+        });
+
+        return orderMapper.fromOrder(savedOrder);
+    }
+
+    public OrderStatusResponse getOrderStatus(Integer orderId, String customerId) {
+        return orderRepository.findByIdAndCustomerId(orderId, customerId)
+                .map(orderMapper::toOrderStatusResponse)
+                .orElseThrow(() -> new OrderNotFoundException(
+                        String.format("Order not found with ID: %d", orderId)
+                ));
+    }
+
+    // keyset pagination over (created_date, id), one extra row tells whether a next page exists
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrders(OrderFilterRequest filter, String cursor, int size) {
+        OrderCursor after = cursor == null ? null : OrderCursor.decode(cursor);
+
+        Specification<Order> specification = Specification
+                .where(OrderSpecifications.hasStatus(filter.status()))
+                .and(OrderSpecifications.hasCustomerId(filter.customerId()))
+                .and(OrderSpecifications.createdFrom(filter.from()))
+                .and(OrderSpecifications.createdBefore(filter.to()))
+                .and(after == null ? null : OrderSpecifications.after(after.createdDate(), after.id()));
+
+        List<Order> orders = orderRepository.findBy(specification, query -> query
+                .sortBy(Sort.by("createdDate", "id"))
+                .limit(size + 1)
+                .all());
+
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            Order last = orders.get(size - 1);
+            nextCursor = new OrderCursor(last.getCreatedDate(), last.getId()).encode();
+        }
+
+        return new OrderPageResponse(
+                orders.stream().map(orderMapper::fromOrder).collect(Collectors.toList()),
+                nextCursor
+        );
     }
 
-    public OrderResponse getOrderById(Integer orderId) {
-        return orderRepository.findById(orderId)
-                .map(orderMapper::fromOrder)
+    @Transactional(readOnly = true)
+    public OrderDetailResponse getOrderById(Integer orderId) {
+        return orderRepository.findDetailById(orderId)
+                .map(orderMapper::toOrderDetailResponse)
                 .orElseThrow(() -> new OrderNotFoundException(
                         String.format("Order not found with ID: %d", orderId)
                 ));
     }
 
+    private CheckoutData lookupCheckoutData(String customerId) {
+        return new CheckoutData(
+                timed("customer", () -> validateAndGetCustomer(customerId)),
+                timed("basket", this::validateAndGetBasket)
+        );
+    }
+
+    private CheckoutData lookupCheckoutDataConcurrently(String customerId) {
+        CompletableFuture<CustomerResponse> customer = fork("customer", () -> validateAndGetCustomer(customerId));
+        CompletableFuture<BasketCheckoutResponse> basket = fork("basket", this::validateAndGetBasket);
+
+        // joined in the sequential order, so the first failing check is reported the same way
+        return new CheckoutData(join(customer), join(basket));
+    }
+
+    private <T> CompletableFuture<T> fork(String stage, Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(() -> timed(stage, lookup), checkoutLookupExecutor);
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T timed(String stage, Supplier<T> supplier) {
+        return Timer.builder("order.checkout.stage")
+                .tag("stage", stage)
+                .tag("mode", parallelLookups ? "parallel" : "sequential")
+                .register(meterRegistry)
+                .record(supplier);
+    }
+
+    private void timed(String stage, Runnable runnable) {
+        timed(stage, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
     private CustomerResponse validateAndGetCustomer(String customerId) {
         CustomerResponse customer = customerClient.getProfile()
                 .orElseThrow(() -> new ExternalServiceException(
@@ -109,28 +247,19 @@ public class OrderService {
         return customer;
     }
 
-    private BasketResponse validateAndGetBasket() {
-        BasketResponse basket = basketClient.getBasket()
+    // items, total price and content hash come from one basket read
+    private BasketCheckoutResponse validateAndGetBasket() {
+        BasketCheckoutResponse basket = basketClient.getCheckoutSnapshot()
                 .orElseThrow(() -> new ExternalServiceException(
                         "Basket service is unavailable or returned empty response."));
 
         if (basket.items() == null || basket.items().isEmpty()) {
             throw new InvalidOrderRequestException("Cannot create an order with an empty basket.");
         }
-        return basket;
-    }
-
-    private BigDecimal calculateTotalPrice() {
-        try {
-            var response = basketClient.getTotalBasketPrice();
-            if (response == null || response.getBody() == null) {
-                throw new ExternalServiceException("Cannot retrieve total price from Basket service.");
-            }
-            return response.getBody().totalPrice();
-        } catch (Exception e) {
-            throw new ExternalServiceException("Error communicating with Basket service: "
-                    + e.getMessage());
+        if (basket.totalPrice() == null) {
+            throw new ExternalServiceException("Cannot retrieve total price from Basket service.");
         }
+        return basket;
     }
 
     private Address findAddress(List<Address> addresses, String activeId, String type) {
@@ -150,29 +279,112 @@ public class OrderService {
     private Order persistInitialOrder(
             OrderRequest orderRequest,
             CustomerResponse customer,
-            BasketResponse basket,
+            BasketCheckoutResponse basket,
             BigDecimal totalPrice
     ) {
         Order order = orderMapper.toOrder(orderRequest, customer.id(), customer.email(), totalPrice);
         order.setStatus(OrderStatus.PENDING_PAYMENT);
 
         Order savedOrder = orderRepository.save(order);
+        orderEventProducer.sendOrderStatusUpdate(orderMapper.toOrderStatusUpdatedEvent(savedOrder));
 
-        for (BasketItem basketItem : basket.items()) {
-            orderLineService.saveOrderLine(new OrderlineRequest(
-                    null,
-                    savedOrder.getId(),
-                    basketItem.productId(),
-                    basketItem.quantity()
-            ));
-        }
+        List<OrderlineRequest> orderlineRequests = basket.items()
+                .stream()
+                .map(basketItem -> new OrderlineRequest(
+                        null,
+                        savedOrder.getId(),
+                        basketItem.productId(),
+                        basketItem.quantity(),
+                        basketItem.basePrice(),
+                        basketItem.productName(),
+                        basketItem.manufacturer(),
+                        basketItem.categoryId()
+                ))
+                .collect(Collectors.toList());
+
+        orderLineService.saveOrderLines(orderlineRequests);
         return savedOrder;
     }
 
-    private void processPayment(Order order) {
+    private void completeAcceptedOrder(Integer orderId, CheckoutData checkoutData) {
+        AtomicBoolean charged = new AtomicBoolean();
+        try {
+            requiresNewTransaction().executeWithoutResult(status -> {
+                Order order = orderRepository.findById(orderId)
+                        .orElseThrow(() -> new OrderNotFoundException(
+                                String.format("Order not found with ID: %d", orderId)
+                        ));
+
+                // the sweeper canceled it while the task was queued, do not charge
+                if (order.getStatus() != OrderStatus.PENDING_PAYMENT) {
+                    log.warn("Skipping payment of order ID: {}, it is already {}", orderId, order.getStatus());
+                    return;
+                }
+
+                try {
+                    timed("payment", () -> processPayment(order, checkoutData.basket().contentHash()));
+                    charged.set(true);
+                    timed("finalize", () -> finalizeOrder(order, checkoutData.customer(), checkoutData.basket()));
+                } catch (PaymentProcessingException e) {
+                    handlePaymentError(order);
+                }
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // the sweeper canceled the order during the payment call, nothing was charged
+            // unless the payment went through
+            if (charged.get()) {
+                markPaymentNeedsReview(orderId, e);
+            } else {
+                log.warn("Order ID: {} was changed while its payment failed, its status is kept", orderId);
+            }
+        } catch (RuntimeException e) {
+            // nobody waits on the worker, the order stays PENDING_PAYMENT, a charged one would
+            // be canceled by the sweeper later
+            if (charged.get()) {
+                markPaymentNeedsReview(orderId, e);
+            } else {
+                log.error("Could not complete accepted order ID: {}", orderId, e);
+            }
+        }
+    }
+
+    // the customer was charged but the order was not finalized (the sweeper canceled it during
+    // the payment call, or finalizing failed), the order is moved to PAYMENT_NEEDS_REVIEW
+    // (published like any status change) and counted, so it can be alerted on and refunded
+    // or fulfilled by hand
+    private void markPaymentNeedsReview(Integer orderId, RuntimeException cause) {
+        Counter.builder("order.payment.needs_review")
+                .description("Charged orders that could not be completed, waiting for a manual check")
+                .register(meterRegistry)
+                .increment();
+
+        try {
+            requiresNewTransaction().executeWithoutResult(status -> orderRepository.findById(orderId)
+                    .filter(order -> order.getStatus() == OrderStatus.CANCELED
+                            || order.getStatus() == OrderStatus.PENDING_PAYMENT)
+                    .ifPresent(order -> updateStatus(order, OrderStatus.PAYMENT_NEEDS_REVIEW)));
+            log.error("Order ID: {} was charged but not completed, the payment needs a manual check",
+                    orderId, cause);
+        } catch (RuntimeException e) {
+            e.addSuppressed(cause);
+            log.error("Order ID: {} was charged but not completed and could not be marked for review",
+                    orderId, e);
+        }
+    }
+
+    // with CallerRunsPolicy the worker can run inside afterCommit on the request thread, where
+    // the committed transaction is still bound and a joining template would never flush
+    private TransactionTemplate requiresNewTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    // payment re-reads the basket and rejects the charge if its content hash no longer matches
+    private void processPayment(Order order, String basketContentHash) {
         log.info("Initiating payment for Order Ref: {}", order.getReference());
         try {
-            paymentClient.createPayment();
+            paymentClient.createPayment(basketContentHash);
         } catch (Exception e) {
             log.error("Payment failed for Order Ref: {}", order.getReference(), e);
             throw new PaymentProcessingException("Payment gateway declined the transaction: "
@@ -182,21 +394,26 @@ public class OrderService {
 
     private void handlePaymentError(Order order) {
         log.warn("Marking Order Ref: {} as PAYMENT_FAILED.", order.getReference());
-        order.setStatus(OrderStatus.PAYMENT_FAILED);
-        orderRepository.save(order);
+        updateStatus(order, OrderStatus.PAYMENT_FAILED);
     }
 
     private void finalizeOrder(
             Order order,
             CustomerResponse customerResponse,
-            BasketResponse basketResponse
+            BasketCheckoutResponse basketResponse
     ) {
-        order.setStatus(OrderStatus.PROCESSING);
-        orderRepository.save(order);
+        updateStatus(order, OrderStatus.PROCESSING);
 
         sendOrderEvents(order, customerResponse, basketResponse.items());
     }
 
+    private void updateStatus(Order order, OrderStatus status) {
+        order.setStatus(status);
+        orderRepository.save(order);
+
+        orderEventProducer.sendOrderStatusUpdate(orderMapper.toOrderStatusUpdatedEvent(order));
+    }
+
     private void sendOrderEvents(
             Order order,
             CustomerResponse customerResponse,
@@ -244,4 +461,13 @@ public class OrderService {
                 basketItems
         );
     }
+
+    private record CheckoutData(
+            CustomerResponse customer,
+            BasketCheckoutResponse basket
+    ) {
+        BigDecimal totalPrice() {
+            return basket.totalPrice();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package dev.berke.app.order.application;
+
+import dev.berke.app.order.application.mapper.OrderMapper;
+import dev.berke.app.order.domain.model.Order;
+import dev.berke.app.order.domain.model.OrderStatus;
+import dev.berke.app.order.domain.repository.OrderRepository;
+import dev.berke.app.order.infrastructure.messaging.OrderEventProducer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// cancels orders left in PENDING_PAYMENT, e.g. when the service died between
+// persistInitialOrder and finalizeOrder
+// 1. every chunk runs in its own transaction and first takes a postgres advisory lock,
+//    so only one replica sweeps at a time
+// 2. the oldest pending orders before the cutoff are read in bounded batches
+// 3. each order is canceled and the status update is published through the outbox
+// an order the payment worker completed meanwhile fails the version check, the chunk is
+// rolled back and the next chunk reads the pending orders again
+@Component
+@Slf4j
+public class StalePendingOrderSweeper {
+
+    // arbitrary, only has to be unique among the advisory locks of the order database
+    private static final long SWEEPER_LOCK_KEY = 7_301_001L;
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final OrderEventProducer orderEventProducer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer sweepTimer;
+    private final DistributionSummary sweepSize;
+
+    // must be longer than a checkout including a queued asynchronous payment
+    @Value("${app.order.sweeper.pending-timeout:30m}")
+    private Duration pendingTimeout;
+
+    @Value("${app.order.sweeper.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.order.sweeper.max-batches:50}")
+    private int maxBatches;
+
+    public StalePendingOrderSweeper(
+            OrderRepository orderRepository,
+            OrderMapper orderMapper,
+            OrderEventProducer orderEventProducer,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.orderRepository = orderRepository;
+        this.orderMapper = orderMapper;
+        this.orderEventProducer = orderEventProducer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        this.sweepTimer = Timer.builder("order.sweeper.run")
+                .description("Time to sweep stale pending orders")
+                .register(meterRegistry);
+        this.sweepSize = DistributionSummary.builder("order.sweeper.swept")
+                .description("Stale pending orders canceled per sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.order.sweeper.interval-ms:60000}",
+            fixedDelayString = "${app.order.sweeper.interval-ms:60000}"
+    )
+    public void sweep() {
+        sweepTimer.record(() -> {
+            Instant cutoff = Instant.now().minus(pendingTimeout);
+            int swept = 0;
+
+            // bounded per run, a large backlog is worked off over several runs
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Integer canceled;
+                try {
+                    canceled = transactionTemplate.execute(status -> sweepBatch(cutoff));
+                } catch (OptimisticLockingFailureException e) {
+                    log.info("Stale order sweep chunk lost a race with the payment worker, retrying");
+                    continue;
+                }
+
+                if (canceled == null || canceled < 0) {
+                    log.debug("Stale order sweep skipped, another replica holds the lock");
+                    break;
+                }
+
+                swept += canceled;
+                if (canceled < batchSize) {
+                    break;
+                }
+            }
+
+            sweepSize.record(swept);
+            if (swept > 0) {
+                log.info("Canceled {} orders pending payment since before {}", swept, cutoff);
+            }
+        });
+    }
+
+    // returns -1 when the lock is held elsewhere
+    private int sweepBatch(Instant cutoff) {
+        // transaction scoped, released on commit of this chunk
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, SWEEPER_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return -1;
+        }
+
+        List<Order> staleOrders = orderRepository.findByStatusAndCreatedDateBeforeOrderByCreatedDateAscIdAsc(
+                OrderStatus.PENDING_PAYMENT, cutoff, Pageable.ofSize(batchSize));
+
+        for (Order order : staleOrders) {
+            order.setStatus(OrderStatus.CANCELED);
+            orderEventProducer.sendOrderStatusUpdate(orderMapper.toOrderStatusUpdatedEvent(order));
+        }
+        orderRepository.saveAll(staleOrders);
+
+        return staleOrders.size();
+    }
+}
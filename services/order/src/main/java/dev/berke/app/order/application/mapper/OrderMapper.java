@@ -1,21 +1,30 @@
 package dev.berke.app.order.application.mapper;
 
 import dev.berke.app.order.domain.event.OrderCreatedEvent;
+import dev.berke.app.order.domain.event.OrderStatusUpdatedEvent;
 import dev.berke.app.order.domain.model.Order;
+import dev.berke.app.order.api.dto.OrderDetailResponse;
 import dev.berke.app.order.api.dto.OrderRequest;
 import dev.berke.app.order.api.dto.OrderResponse;
+import dev.berke.app.order.api.dto.OrderStatusResponse;
 import dev.berke.app.order.infrastructure.client.basket.BasketItem;
 import dev.berke.app.order.infrastructure.client.customer.Address;
 import dev.berke.app.order.infrastructure.client.customer.CustomerResponse;
+import dev.berke.app.orderline.application.mapper.OrderlineMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class OrderMapper {
 
+    private final OrderlineMapper orderlineMapper;
+
     public Order toOrder(
             OrderRequest orderRequest,
             String customerId,
@@ -38,6 +47,42 @@ public class OrderMapper {
         );
     }
 
+    public OrderDetailResponse toOrderDetailResponse(Order order) {
+        return new OrderDetailResponse(
+                order.getId(),
+                order.getReference(),
+                order.getCustomerId(),
+                order.getCustomerEmail(),
+                order.getTotalAmount(),
+                order.getPaymentMethod(),
+                order.getStatus(),
+                order.getCreatedDate(),
+                order.getLastModifiedDate(),
+                order.getOrderlines() == null
+                        ? List.of()
+                        : order.getOrderlines().stream()
+                                .map(orderlineMapper::toOrderLineResponse)
+                                .collect(Collectors.toList())
+        );
+    }
+
+    public OrderStatusResponse toOrderStatusResponse(Order order) {
+        return new OrderStatusResponse(
+                order.getId(),
+                order.getReference(),
+                order.getStatus(),
+                order.getLastModifiedDate()
+        );
+    }
+
+    public OrderStatusUpdatedEvent toOrderStatusUpdatedEvent(Order order) {
+        return new OrderStatusUpdatedEvent(
+                order.getId().toString(),
+                order.getStatus().name(),
+                LocalDateTime.now()
+        );
+    }
+
     public OrderCreatedEvent toOrderCreatedEvent(
             Order order,
             CustomerResponse customer,
@@ -8,14 +8,19 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -31,17 +36,23 @@ import java.util.List;
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @NoArgsConstructor
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_date_id", columnList = "created_date, id"),
+        @Index(name = "idx_orders_customer_id_created_date", columnList = "customer_id, created_date"),
+        @Index(name = "idx_orders_status_created_date", columnList = "status, created_date")
+})
 public class Order {
 
     @Id
-    @GeneratedValue
+    // the sequence hibernate created for the implicit generator (order_seq, increment 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Integer id;
 
     @Column(unique = true, nullable = false)
     private String reference;
 
-    @Column(nullable = false)
+    @Column(name = "customer_id", nullable = false)
     private String customerId;
 
     @Column(nullable = false)
@@ -61,6 +72,13 @@ public class Order {
     @Column(nullable = false)
     private OrderStatus status;
 
+    // the payment worker and the stale order sweeper both move orders out of PENDING_PAYMENT,
+    // whichever commits second fails instead of overwriting the other's status
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @CreatedDate
     @Column(name = "created_date", updatable = false, nullable = false)
     private Instant createdDate;
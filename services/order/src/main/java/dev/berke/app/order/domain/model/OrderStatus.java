@@ -3,6 +3,8 @@ package dev.berke.app.order.domain.model;
 public enum OrderStatus {
     PAYMENT_FAILED,
     PENDING_PAYMENT,
+    // charged after the order was already canceled, refund or fulfil it by hand
+    PAYMENT_NEEDS_REVIEW,
     PROCESSING,
     SHIPPED,
     DELIVERED,
@@ -1,7 +1,28 @@
 package dev.berke.app.order.domain.repository;
 
 import dev.berke.app.order.domain.model.Order;
+import dev.berke.app.order.domain.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpecificationExecutor<Order> {
+    Optional<Order> findByIdAndCustomerId(Integer id, String customerId);
+
+    // order and lines in one select
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderlines WHERE o.id = :id")
+    Optional<Order> findDetailById(@Param("id") Integer id);
+
+    // served by idx_orders_status_created_date
+    List<Order> findByStatusAndCreatedDateBeforeOrderByCreatedDateAscIdAsc(
+            OrderStatus status,
+            Instant createdBefore,
+            Pageable pageable
+    );
 }
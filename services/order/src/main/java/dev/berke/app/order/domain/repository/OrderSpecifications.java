@@ -0,0 +1,47 @@
+package dev.berke.app.order.domain.repository;
+
+import dev.berke.app.order.domain.model.Order;
+import dev.berke.app.order.domain.model.OrderStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+
+// each filter is skipped when its value is null, so the generated sql only has the needed predicates
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> hasCustomerId(String customerId) {
+        return (root, query, cb) -> customerId == null ? null : cb.equal(root.get("customerId"), customerId);
+    }
+
+    public static Specification<Order> createdFrom(Instant from) {
+        return (root, query, cb) -> from == null
+                ? null
+                : cb.greaterThanOrEqualTo(root.<Instant>get("createdDate"), from);
+    }
+
+    public static Specification<Order> createdBefore(Instant to) {
+        return (root, query, cb) -> to == null
+                ? null
+                : cb.lessThan(root.<Instant>get("createdDate"), to);
+    }
+
+    // (created_date, id) > (:createdDate, :id)
+    public static Specification<Order> after(Instant createdDate, Integer id) {
+        return (root, query, cb) -> createdDate == null
+                ? null
+                : cb.or(
+                        cb.greaterThan(root.<Instant>get("createdDate"), createdDate),
+                        cb.and(
+                                cb.equal(root.get("createdDate"), createdDate),
+                                cb.greaterThan(root.<Integer>get("id"), id)
+                        )
+                );
+    }
+}
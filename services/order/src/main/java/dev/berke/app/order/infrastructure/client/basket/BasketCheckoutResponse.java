@@ -0,0 +1,12 @@
+package dev.berke.app.order.infrastructure.client.basket;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record BasketCheckoutResponse(
+        String customerId,
+        List<BasketItem> items,
+        BigDecimal totalPrice,
+        String contentHash
+) {
+}
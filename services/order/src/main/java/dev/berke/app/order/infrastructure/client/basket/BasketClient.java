@@ -1,7 +1,6 @@
 package dev.berke.app.order.infrastructure.client.basket;
 
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import java.util.Optional;
@@ -9,9 +8,6 @@ import java.util.Optional;
 @FeignClient(name = "basket-service", path = "/api/v1/baskets")
 public interface BasketClient {
 
-    @GetMapping("/me")
-    Optional<BasketResponse> getBasket();
-
-    @GetMapping("/total-price")
-    ResponseEntity<BasketTotalPriceResponse> getTotalBasketPrice();
+    @GetMapping("/me/checkout")
+    Optional<BasketCheckoutResponse> getCheckoutSnapshot();
 }
\ No newline at end of file
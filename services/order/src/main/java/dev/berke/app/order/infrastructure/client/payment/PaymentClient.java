@@ -2,10 +2,11 @@ package dev.berke.app.order.infrastructure.client.payment;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 @FeignClient(name = "payment-service", path = "/api/v1/payments")
 public interface PaymentClient {
 
     @PostMapping("/iyzi-payment")
-    PaymentResponse createPayment();
+    PaymentResponse createPayment(@RequestHeader("X-Basket-Content-Hash") String basketContentHash);
 }
\ No newline at end of file
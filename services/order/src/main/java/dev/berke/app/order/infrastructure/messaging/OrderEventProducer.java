@@ -1,15 +1,13 @@
 package dev.berke.app.order.infrastructure.messaging;
 
+import dev.berke.app.common.outbox.OutboxService;
 import dev.berke.app.order.domain.event.OrderCreatedEvent;
 import dev.berke.app.order.domain.event.OrderReceivedEvent;
 import dev.berke.app.order.domain.event.OrderStatusUpdatedEvent;
+import dev.berke.app.outbox.domain.model.OrderOutboxEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,7 +15,8 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class OrderEventProducer {
 
-    private final KafkaTemplate<String, OrderReceivedEvent> kafkaTemplate;
+    // events are written to the outbox in the caller's transaction, OutboxRelay sends them to kafka
+    private final OutboxService<OrderOutboxEvent> outboxService;
 
     @Value("${app.kafka.topics.order-received}")
     private String orderReceivedTopic;
@@ -29,37 +28,23 @@ public class OrderEventProducer {
     private String orderStatusUpdatedTopic;
 
     public void sendOrderConfirmation(OrderReceivedEvent event) {
-        log.info("Sending order received event to topic: {} for order reference: {}",
+        log.info("Queueing order received event for topic: {} for order reference: {}",
                 orderReceivedTopic, event.reference());
 
-        sendMessage(orderReceivedTopic, event);
+        outboxService.enqueue(orderReceivedTopic, event.reference(), event);
     }
 
     public void sendOrderCreated(OrderCreatedEvent event) {
-        log.info("Sending order created event to topic: {} for order reference: {}",
+        log.info("Queueing order created event for topic: {} for order reference: {}",
                 orderCreatedTopic, event.reference());
 
-        sendMessage(orderCreatedTopic, event);
+        outboxService.enqueue(orderCreatedTopic, event.reference(), event);
     }
 
     public void sendOrderStatusUpdate(OrderStatusUpdatedEvent event) {
-        log.info("Sending order status updated event to topic: {} for order ID: {}. New status: {}",
+        log.info("Queueing order status updated event for topic: {} for order ID: {}. New status: {}",
                 orderStatusUpdatedTopic, event.orderId(), event.newStatus());
 
-        sendMessage(orderStatusUpdatedTopic, event);
-    }
-
-    private <T> void sendMessage(String topic, T payload) {
-        try {
-            Message<T> message = MessageBuilder
-                    .withPayload(payload)
-                    .setHeader(KafkaHeaders.TOPIC, topic)
-                    .build();
-
-            kafkaTemplate.send(message);
-            log.debug("Sent message to topic: {}", topic);
-        } catch (Exception e) {
-            log.error("Failed to send message to Kafka topic: {}", topic, e);
-        }
+        outboxService.enqueue(orderStatusUpdatedTopic, event.orderId(), event);
     }
 }
\ No newline at end of file
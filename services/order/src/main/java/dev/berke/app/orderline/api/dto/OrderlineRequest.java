@@ -1,9 +1,15 @@
 package dev.berke.app.orderline.api.dto;
 
+import java.math.BigDecimal;
+
 public record OrderlineRequest(
         Integer id,
         Integer orderId,
         Integer productId,
-        Integer quantity
+        Integer quantity,
+        BigDecimal unitPrice,
+        String productName,
+        String manufacturer,
+        Integer categoryId
 ) {
 }
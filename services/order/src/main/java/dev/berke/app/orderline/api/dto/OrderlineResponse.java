@@ -1,7 +1,14 @@
 package dev.berke.app.orderline.api.dto;
 
+import java.math.BigDecimal;
+
 public record OrderlineResponse(
         Integer id,
-        Integer quantity
+        Integer productId,
+        Integer quantity,
+        BigDecimal unitPrice,
+        String productName,
+        String manufacturer,
+        Integer categoryId
 ) {
 }
\ No newline at end of file
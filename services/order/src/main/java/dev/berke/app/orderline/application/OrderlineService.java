@@ -1,6 +1,7 @@
 package dev.berke.app.orderline.application;
 
 import dev.berke.app.orderline.application.mapper.OrderlineMapper;
+import dev.berke.app.orderline.domain.model.Orderline;
 import dev.berke.app.orderline.domain.repository.OrderlineRepository;
 import dev.berke.app.orderline.api.dto.OrderlineRequest;
 import dev.berke.app.orderline.api.dto.OrderlineResponse;
@@ -22,6 +23,18 @@ public class OrderlineService {
         return orderlineRepository.save(order).getId();
     }
 
+    // single saveAll, inserts are grouped by hibernate jdbc batching
+    public List<Integer> saveOrderLines(List<OrderlineRequest> orderlineRequests) {
+        List<Orderline> orderlines = orderlineRequests.stream()
+                .map(orderlineMapper::toOrderLine)
+                .collect(Collectors.toList());
+
+        return orderlineRepository.saveAll(orderlines)
+                .stream()
+                .map(Orderline::getId)
+                .collect(Collectors.toList());
+    }
+
     public List<OrderlineResponse> getOrderLinesByOrderId(Integer orderId) {
         return orderlineRepository.findAllByOrderId(orderId)
                 .stream()
@@ -20,10 +20,22 @@ public class OrderlineMapper {
                 )
                 .productId(orderlineRequest.productId())
                 .quantity(orderlineRequest.quantity())
+                .unitPrice(orderlineRequest.unitPrice())
+                .productName(orderlineRequest.productName())
+                .manufacturer(orderlineRequest.manufacturer())
+                .categoryId(orderlineRequest.categoryId())
                 .build();
     }
 
     public OrderlineResponse toOrderLineResponse(Orderline orderline) {
-        return new OrderlineResponse(orderline.getId(), orderline.getQuantity());
+        return new OrderlineResponse(
+                orderline.getId(),
+                orderline.getProductId(),
+                orderline.getQuantity(),
+                orderline.getUnitPrice(),
+                orderline.getProductName(),
+                orderline.getManufacturer(),
+                orderline.getCategoryId()
+        );
     }
 }
\ No newline at end of file
@@ -3,10 +3,13 @@ package dev.berke.app.orderline.domain.model;
 import dev.berke.app.order.domain.model.Order;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,6 +17,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -24,10 +29,13 @@ import lombok.Setter;
 public class Orderline {
 
     @Id
-    @GeneratedValue
+    // the sequence hibernate created for the implicit generator (orderline_seq, increment 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orderline_seq")
+    @SequenceGenerator(name = "orderline_seq", sequenceName = "orderline_seq", allocationSize = 50)
     private Integer id;
 
-    @ManyToOne
+    // lazy, reading lines must not load the parent order once per line
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
 
@@ -36,4 +44,17 @@ public class Orderline {
 
     @Column(name="quantity")
     private Integer quantity;
+
+    // product details at checkout time, so order reads do not call product-service
+    @Column(name = "unit_price")
+    private BigDecimal unitPrice;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "manufacturer")
+    private String manufacturer;
+
+    @Column(name = "category_id")
+    private Integer categoryId;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package dev.berke.app.outbox.domain.model;
+
+import dev.berke.app.common.outbox.OutboxEvent;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+// outbox row of the order service, written in the same transaction as the order change
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_message_key_id", columnList = "message_key, id")
+})
+@SequenceGenerator(name = "outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+public class OrderOutboxEvent extends OutboxEvent {
+}
@@ -0,0 +1,7 @@
+package dev.berke.app.outbox.domain.repository;
+
+import dev.berke.app.common.outbox.OutboxEventRepository;
+import dev.berke.app.outbox.domain.model.OrderOutboxEvent;
+
+public interface OrderOutboxEventRepository extends OutboxEventRepository<OrderOutboxEvent> {
+}
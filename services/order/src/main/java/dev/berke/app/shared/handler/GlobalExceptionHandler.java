@@ -1,9 +1,12 @@
 package dev.berke.app.shared.handler;
 
 import dev.berke.app.shared.exception.ExternalServiceException;
+import dev.berke.app.shared.exception.IdempotencyConflictException;
+import dev.berke.app.shared.exception.IdempotencyKeyMismatchException;
 import dev.berke.app.shared.exception.InvalidOrderRequestException;
 import dev.berke.app.shared.exception.OrderNotFoundException;
 import dev.berke.app.shared.exception.PaymentProcessingException;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -59,6 +62,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    ProblemDetail handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT, ex.getMessage());
+
+        problemDetail.setTitle("Request In Progress");
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    ProblemDetail handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+
+        problemDetail.setTitle("Idempotency Key Reused");
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
     // business logic check
     @ExceptionHandler(InvalidOrderRequestException.class)
     ProblemDetail handleInvalidOrderRequestException(InvalidOrderRequestException ex) {
@@ -97,6 +122,32 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return createResponseEntity(problemDetail, headers, status, request);
     }
 
+    // validation for request parameters
+    @ExceptionHandler(ConstraintViolationException.class)
+    ProblemDetail handleConstraintViolationException(ConstraintViolationException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.BAD_REQUEST, "Validation failed for request parameters");
+
+        problemDetail.setTitle("Constraint Violation");
+
+        Map<String, String> errors = new HashMap<>();
+
+        ex.getConstraintViolations().forEach(violation -> {
+            String propertyPath = violation.getPropertyPath().toString();
+
+            String field = propertyPath.contains(".")
+                    ? propertyPath.substring(propertyPath.lastIndexOf(".") + 1)
+                    : propertyPath;
+
+            errors.put(field, violation.getMessage());
+        });
+
+        problemDetail.setProperty("errors", errors);
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
     // json parsing errors
     @Override
     protected ResponseEntity<Object> handleHttpMessageNotReadable(
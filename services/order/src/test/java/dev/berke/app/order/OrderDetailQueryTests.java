@@ -0,0 +1,118 @@
+package dev.berke.app.order;
+
+import dev.berke.app.order.api.dto.OrderDetailResponse;
+import dev.berke.app.order.application.mapper.OrderMapper;
+import dev.berke.app.order.domain.model.Order;
+import dev.berke.app.order.domain.model.OrderStatus;
+import dev.berke.app.order.domain.repository.OrderRepository;
+import dev.berke.app.order.infrastructure.client.payment.PaymentMethod;
+import dev.berke.app.orderline.application.mapper.OrderlineMapper;
+import dev.berke.app.orderline.domain.model.Orderline;
+import dev.berke.app.orderline.domain.repository.OrderlineRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the order detail (order plus lines) must cost one select, however many lines the order has
+@DataJpaTest
+@Import({OrderMapper.class, OrderlineMapper.class})
+@ActiveProfiles("jpatest")
+class OrderDetailQueryTests {
+
+    private static final int LINES = 5;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderlineRepository orderlineRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void orderDetailWithLinesIsOneStatement() {
+        Integer orderId = persistOrder(LINES);
+
+        statistics.clear();
+        // read in a fresh persistence context, like getOrderById
+        OrderDetailResponse detail = transactionTemplate.execute(status -> orderRepository.findDetailById(orderId)
+                .map(orderMapper::toOrderDetailResponse)
+                .orElseThrow());
+
+        assertThat(detail.orderlines()).hasSize(LINES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    @Test
+    void orderDetailWithoutLinesIsOneStatement() {
+        Integer orderId = persistOrder(0);
+
+        statistics.clear();
+        OrderDetailResponse detail = transactionTemplate.execute(status -> orderRepository.findDetailById(orderId)
+                .map(orderMapper::toOrderDetailResponse)
+                .orElseThrow());
+
+        assertThat(detail.orderlines()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Integer persistOrder(int lines) {
+        return transactionTemplate.execute(status -> {
+            Order order = orderRepository.save(Order.builder()
+                    .reference(UUID.randomUUID().toString())
+                    .customerId("customer-1")
+                    .customerEmail("customer@example.com")
+                    .totalAmount(BigDecimal.TEN)
+                    .paymentMethod(PaymentMethod.IYZICO_PAYMENT)
+                    .status(OrderStatus.PROCESSING)
+                    .build());
+
+            List<Orderline> orderlines = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) {
+                orderlines.add(Orderline.builder()
+                        .order(order)
+                        .productId(i + 1)
+                        .quantity(1)
+                        .unitPrice(BigDecimal.ONE)
+                        .productName("product-" + i)
+                        .build());
+            }
+            orderlineRepository.saveAll(orderlines);
+            return order.getId();
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package dev.berke.app.orderline;
+
+import dev.berke.app.order.domain.model.Order;
+import dev.berke.app.order.domain.model.OrderStatus;
+import dev.berke.app.order.domain.repository.OrderRepository;
+import dev.berke.app.order.infrastructure.client.payment.PaymentMethod;
+import dev.berke.app.orderline.domain.model.Orderline;
+import dev.berke.app.orderline.domain.repository.OrderlineRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// orderline inserts per order, one statement per line vs a single batched saveAll
+// 1. checks that saveAll needs one insert statement per jdbc batch, not per line
+// 2. logs orders per second of both variants for 1, 10 and 100 lines,
+//    the unbatched variant saves line by line with jdbc batching turned off for its session
+//    tagged benchmark and left out of the default test run, run it with
+//    mvn -pl services/order test -Dbenchmark.excludedGroups= -Dgroups=benchmark
+// h2 numbers only show the statement difference, absolute numbers need postgres
+@DataJpaTest
+@ActiveProfiles("jpatest")
+@Slf4j
+class OrderlineBatchInsertBenchmarkTests {
+
+    private static final int WARMUP_ORDERS = 20;
+    private static final int MEASURED_ORDERS = 100;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderlineRepository orderlineRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void saveAllBatchesOrderlineInserts(int lines) {
+        persistOrder(lines, true);
+
+        statistics.clear();
+        persistOrder(lines, true);
+
+        // order insert, its lines in ceil(lines / batch size) statements, sequence calls every 50 ids
+        long insertBatches = (lines + BATCH_SIZE - 1) / BATCH_SIZE;
+        long maxSequenceCalls = 2 + lines / BATCH_SIZE;
+        assertThat(statistics.getPrepareStatementCount())
+                .isLessThanOrEqualTo(1 + insertBatches + maxSequenceCalls);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + lines);
+    }
+
+    @Tag("benchmark")
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void compareOrderlineInsertThroughput(int lines) {
+        double unbatched = measure(lines, false);
+        double batched = measure(lines, true);
+
+        log.info("orderlines={} unbatched save per line: {} orders/s, batched saveAll: {} orders/s",
+                lines, Math.round(unbatched), Math.round(batched));
+    }
+
+    private double measure(int lines, boolean batched) {
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            persistOrder(lines, batched);
+        }
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            persistOrder(lines, batched);
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - startedAt);
+        return MEASURED_ORDERS * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    // one transaction per order, like persistInitialOrder
+    private void persistOrder(int lines, boolean batched) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batched) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+            }
+
+            Order order = orderRepository.save(Order.builder()
+                    .reference(UUID.randomUUID().toString())
+                    .customerId("customer-1")
+                    .customerEmail("customer@example.com")
+                    .totalAmount(BigDecimal.TEN)
+                    .paymentMethod(PaymentMethod.IYZICO_PAYMENT)
+                    .status(OrderStatus.PENDING_PAYMENT)
+                    .build());
+
+            List<Orderline> orderlines = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) {
+                orderlines.add(Orderline.builder()
+                        .order(order)
+                        .productId(i + 1)
+                        .quantity(1)
+                        .unitPrice(BigDecimal.ONE)
+                        .productName("product-" + i)
+                        .build());
+            }
+
+            if (batched) {
+                orderlineRepository.saveAll(orderlines);
+            } else {
+                orderlines.forEach(orderlineRepository::save);
+            }
+        });
+    }
+}
@@ -44,9 +44,10 @@ public class PaymentController {
     @PostMapping("/iyzi-payment")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<PaymentResponse> createPayment(
-            @AuthenticationPrincipal String customerIdPrincipal
+            @AuthenticationPrincipal String customerIdPrincipal,
+            @RequestHeader(value = "X-Basket-Content-Hash", required = false) String basketContentHash
     ) {
-        return ResponseEntity.ok(iyzipayService.createPayment(customerIdPrincipal));
+        return ResponseEntity.ok(iyzipayService.createPayment(customerIdPrincipal, basketContentHash));
     }
 
     @GetMapping("/{paymentId}")
@@ -6,9 +6,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 @FeignClient(name = "basket-service", path = "/api/v1/baskets")
 public interface BasketClient {
 
-    @GetMapping("/me")
-    BasketResponse getBasket();
-
-    @GetMapping("/total-price")
-    BasketTotalPriceResponse getTotalBasketPrice();
+    @GetMapping("/me/checkout")
+    BasketCheckoutResponse getCheckoutSnapshot();
 }
\ No newline at end of file
@@ -15,9 +15,8 @@ import dev.berke.app.payment.application.mapper.PaymentMapper;
 import dev.berke.app.payment.domain.model.CreditCard;
 import dev.berke.app.payment.domain.model.PaymentTransaction;
 import dev.berke.app.payment.domain.repository.PaymentTransactionRepository;
+import dev.berke.app.payment.infrastructure.client.basket.BasketCheckoutResponse;
 import dev.berke.app.payment.infrastructure.client.basket.BasketClient;
-import dev.berke.app.payment.infrastructure.client.basket.BasketResponse;
-import dev.berke.app.payment.infrastructure.client.basket.BasketTotalPriceResponse;
 import dev.berke.app.payment.infrastructure.client.customer.CustomerClient;
 import dev.berke.app.payment.infrastructure.messaging.PaymentEventProducer;
 import dev.berke.app.payment.domain.event.PaymentReceivedEvent;
@@ -25,6 +24,7 @@ import dev.berke.app.payment.PaymentMethod;
 import dev.berke.app.payment.api.dto.PaymentResponse;
 import dev.berke.app.payment.application.PaymentService;
 
+import dev.berke.app.shared.exception.BasketChangedException;
 import dev.berke.app.shared.exception.InvalidRequestException;
 import dev.berke.app.shared.exception.PaymentExecutionException;
 import dev.berke.app.shared.exception.UpstreamDataException;
@@ -50,7 +50,8 @@ public class IyzipayService {
     private final PaymentTransactionRepository paymentTransactionRepository;
 
     public PaymentResponse createPayment(
-            String customerId
+            String customerId,
+            String expectedBasketContentHash
     ) {
         // creating and setting buyer info for iyzipayment
         // paymentCard, buyer, billingAddress, shippingAddress, basketItems, totalBasketPrice
@@ -65,13 +66,16 @@ public class IyzipayService {
         String conversationId = UUID.randomUUID().toString();
         request.setConversationId(conversationId);
 
-        List<BasketItem> basketItems = createBasketItems();
+        // items and total price come from one basket snapshot
+        BasketCheckoutResponse basketSnapshot = getBasketSnapshot(expectedBasketContentHash);
+
+        List<BasketItem> basketItems = createBasketItems(basketSnapshot);
         if (basketItems.isEmpty()) {
             throw new InvalidRequestException("Cannot process payment for an empty basket.");
         }
         request.setBasketItems(basketItems);
 
-        BigDecimal totalBasketPrice = calculateTotalBasketPrice();
+        BigDecimal totalBasketPrice = basketSnapshot.totalPrice();
         if (totalBasketPrice.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidRequestException("Total price must be greater than zero.");
         }
@@ -218,14 +222,25 @@ public class IyzipayService {
         return paymentCard;
     }
 
-    private List<com.iyzipay.model.BasketItem> createBasketItems() {
-        BasketResponse basketResponse = basketClient.getBasket();
+    private BasketCheckoutResponse getBasketSnapshot(String expectedContentHash) {
+        BasketCheckoutResponse basketSnapshot = basketClient.getCheckoutSnapshot();
 
-        if (basketResponse == null || basketResponse.items() == null) {
+        if (basketSnapshot == null || basketSnapshot.items() == null) {
             throw new UpstreamDataException("Cannot retrieve basket items.");
         }
+        if (basketSnapshot.totalPrice() == null) {
+            throw new UpstreamDataException("Cannot to retrieve basket price.");
+        }
+
+        // caller (order service) validated a different basket than the one about to be charged
+        if (expectedContentHash != null && !expectedContentHash.equals(basketSnapshot.contentHash())) {
+            throw new BasketChangedException("Basket changed during checkout, payment is not executed.");
+        }
+        return basketSnapshot;
+    }
 
-        return basketResponse.items().stream()
+    private List<com.iyzipay.model.BasketItem> createBasketItems(BasketCheckoutResponse basketSnapshot) {
+        return basketSnapshot.items().stream()
                 .map(item -> {
                     com.iyzipay.model.BasketItem iyziBasketItem = new com.iyzipay.model.BasketItem();
                     iyziBasketItem.setId(String.valueOf(item.getProductId()));
@@ -241,15 +256,6 @@ public class IyzipayService {
                 .collect(Collectors.toList());
     }
 
-    private BigDecimal calculateTotalBasketPrice() {
-        BasketTotalPriceResponse totalPriceResponse = basketClient.getTotalBasketPrice();
-        if (totalPriceResponse == null || totalPriceResponse.totalPrice() == null) {
-            throw new UpstreamDataException("Cannot to retrieve basket price.");
-        }
-
-        return totalPriceResponse.totalPrice();
-    }
-
     private void savePaymentTransaction(
             Payment payment,
             String customerId,
@@ -0,0 +1,12 @@
+package dev.berke.app.shared.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BasketChangedException extends RuntimeException {
+
+    public BasketChangedException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package dev.berke.app.shared.handler;
 
+import dev.berke.app.shared.exception.BasketChangedException;
 import dev.berke.app.shared.exception.CreditCardNotFoundException;
 import dev.berke.app.shared.exception.InvalidRequestException;
 import dev.berke.app.shared.exception.PaymentExecutionException;
@@ -60,6 +61,18 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    // basket was modified between order validation and payment
+    @ExceptionHandler(BasketChangedException.class)
+    ProblemDetail handleBasketChangedException(BasketChangedException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT, ex.getMessage());
+
+        problemDetail.setTitle("Basket Changed");
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
     // common infrastructure exceptions
 
     // business logic check
@@ -1,6 +1,7 @@
 package dev.berke.app.category.domain.model;
 
 import dev.berke.app.product.domain.model.Product;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -17,6 +18,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -28,6 +31,8 @@ import java.util.Set;
 @Setter
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @ToString(exclude = "products")
 @EqualsAndHashCode(of = {"categoryId"})
 public class Category {
@@ -0,0 +1,41 @@
+package dev.berke.app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.common.messaging.KafkaEventPublisher;
+import dev.berke.app.common.outbox.OutboxRelay;
+import dev.berke.app.common.outbox.OutboxRelayProperties;
+import dev.berke.app.common.outbox.OutboxService;
+import dev.berke.app.outbox.domain.model.ProductOutboxEvent;
+import dev.berke.app.outbox.domain.repository.ProductOutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// the product_outbox table and its relay, the relay logic is shared in the common module
+@Configuration
+@EnableConfigurationProperties(OutboxRelayProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    public OutboxService<ProductOutboxEvent> outboxService(
+            ProductOutboxEventRepository outboxEventRepository,
+            ObjectMapper objectMapper
+    ) {
+        return new OutboxService<>(outboxEventRepository, ProductOutboxEvent::new, objectMapper);
+    }
+
+    @Bean
+    public OutboxRelay<ProductOutboxEvent> outboxRelay(
+            ProductOutboxEventRepository outboxEventRepository,
+            KafkaEventPublisher kafkaEventPublisher,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            OutboxRelayProperties outboxRelayProperties,
+            MeterRegistry meterRegistry
+    ) {
+        return new OutboxRelay<>("product.outbox.relay", outboxEventRepository, kafkaEventPublisher,
+                objectMapper, transactionTemplate, outboxRelayProperties, meterRegistry);
+    }
+}
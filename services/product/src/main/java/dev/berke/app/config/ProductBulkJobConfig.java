@@ -0,0 +1,26 @@
+package dev.berke.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ProductBulkJobConfig {
+
+    // few workers and a bounded queue, every running job holds a connection per chunk
+    // submissions beyond the queue are rejected (AbortPolicy) instead of piling up
+    @Bean
+    public AsyncTaskExecutor productBulkJobExecutor(
+            @Value("${app.product.bulk.workers:2}") int workers,
+            @Value("${app.product.bulk.queue-capacity:20}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("product-bulk-job-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,41 @@
+package dev.berke.app.config;
+
+import dev.berke.app.product.infrastructure.cache.ProductResponseCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class ProductCacheConfig {
+
+    // string keys, raw byte values, the cached responses are already serialized json
+    @Bean
+    public RedisTemplate<String, byte[]> productCacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    // every replica drops its local entry when any replica changes a product
+    @Bean
+    public RedisMessageListenerContainer productCacheInvalidationListener(
+            RedisConnectionFactory connectionFactory,
+            ProductResponseCache productResponseCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> productResponseCache.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ProductResponseCache.INVALIDATION_CHANNEL)
+        );
+        return container;
+    }
+}
@@ -1,6 +1,7 @@
 package dev.berke.app.config;
 
 import dev.berke.app.shared.filter.HeaderAuthenticationFilter;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,6 +30,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(HttpMethod.GET, "/api/v1/products").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/products/*").permitAll() // /api/v1/products/{product-id}
+                        // actuator exposes and changes replica state (DELETE /actuator/secondlevelcache)
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("BACKOFFICE")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(headerAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
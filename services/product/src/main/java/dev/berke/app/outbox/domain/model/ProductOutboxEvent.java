@@ -0,0 +1,16 @@
+package dev.berke.app.outbox.domain.model;
+
+import dev.berke.app.common.outbox.OutboxEvent;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+// outbox row of the product service, written in the same transaction as the product change
+@Entity
+@Table(name = "product_outbox", indexes = {
+        @Index(name = "idx_product_outbox_message_key_id", columnList = "message_key, id")
+})
+@SequenceGenerator(name = "outbox_seq", sequenceName = "product_outbox_seq", allocationSize = 50)
+public class ProductOutboxEvent extends OutboxEvent {
+}
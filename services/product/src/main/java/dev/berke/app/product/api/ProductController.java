@@ -1,40 +1,90 @@
 package dev.berke.app.product.api;
 
+import dev.berke.app.product.api.dto.ProductBulkJobResponse;
+import dev.berke.app.product.api.dto.ProductBulkMutationRequest;
 import dev.berke.app.product.api.dto.ProductCreateRequest;
+import dev.berke.app.product.api.dto.ProductFilterRequest;
+import dev.berke.app.product.api.dto.ProductImportFormat;
+import dev.berke.app.product.api.dto.ProductImportResponse;
+import dev.berke.app.product.api.dto.ProductPageResponse;
 import dev.berke.app.product.api.dto.ProductResponse;
 import dev.berke.app.product.api.dto.ProductStatusUpdateRequest;
+import dev.berke.app.product.application.ProductBulkMutationService;
+import dev.berke.app.product.application.ProductExportService;
+import dev.berke.app.product.application.ProductImportService;
 import dev.berke.app.product.application.ProductService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/products")
+@Validated
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductBulkMutationService productBulkMutationService;
 
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<ProductPageResponse> getProducts(
+            @ModelAttribute ProductFilterRequest filter,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Min(value = 1, message = "Page size must not be less than one")
+            @Max(value = 200, message = "Page size must not exceed 200")
+            @RequestParam(value = "size", defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(productService.getProducts(filter, cursor, size));
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(
+            @RequestParam("ids") List<Integer> productIds
+    ) {
+        return ResponseEntity.ok(productService.getProductsByIds(productIds));
+    }
+
+    // every active product as one ProductPublishedEvent json per line, used to rebuild the search index
+    // after resumes an interrupted export behind the last received product id
+    @GetMapping(value = "/export", produces = ProductExportService.NDJSON)
+    @PreAuthorize("hasRole('BACKOFFICE')")
+    public ResponseEntity<StreamingResponseBody> exportActiveProducts(
+            @RequestParam(value = "after", required = false) Integer afterId
+    ) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ProductExportService.NDJSON))
+                .body(out -> productExportService.exportActiveProducts(afterId, out));
     }
 
     @GetMapping("/{productId}")
-    public ResponseEntity<ProductResponse> getProductById(
+    public ResponseEntity<byte[]> getProductById(
             @PathVariable("productId") Integer productId
     ) {
-        return ResponseEntity.ok(productService.getProductById(productId));
+        // cached json bytes are written as they are, same body as a ProductResponse
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productService.getProductJsonById(productId));
     }
 
     @PostMapping
@@ -45,6 +95,36 @@ public class ProductController {
         return ResponseEntity.ok(productService.createProduct(productCreateRequest));
     }
 
+    // request body is read as a stream, rows are imported while the upload is still arriving
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('BACKOFFICE')")
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ProductImportFormat format,
+            InputStream body
+    ) {
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    // runs in the background, progress is polled from the returned location
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('BACKOFFICE')")
+    public ResponseEntity<ProductBulkJobResponse> submitBulkMutation(
+            @RequestBody @Valid ProductBulkMutationRequest request
+    ) {
+        ProductBulkJobResponse job = productBulkMutationService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/products/bulk/" + job.jobId()))
+                .body(job);
+    }
+
+    @GetMapping("/bulk/{jobId}")
+    @PreAuthorize("hasRole('BACKOFFICE')")
+    public ResponseEntity<ProductBulkJobResponse> getBulkJob(
+            @PathVariable("jobId") String jobId
+    ) {
+        return ResponseEntity.ok(productBulkMutationService.getJob(jobId));
+    }
+
     @PatchMapping("/{productId}/status")
     @PreAuthorize("hasRole('BACKOFFICE')")
     public ResponseEntity<ProductResponse> setProductStatus(
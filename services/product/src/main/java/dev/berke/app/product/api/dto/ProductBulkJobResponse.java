@@ -0,0 +1,21 @@
+package dev.berke.app.product.api.dto;
+
+import java.time.Instant;
+
+// processedProducts counts every targeted product, updatedProducts only the changed ones
+// (unknown ids and products already in the requested state are skipped),
+// queuedEvents counts the events written to the outbox, the relay delivers them
+public record ProductBulkJobResponse(
+        String jobId,
+        ProductBulkOperation operation,
+        ProductBulkJobStatus status,
+        long totalProducts,
+        long processedProducts,
+        long updatedProducts,
+        long queuedEvents,
+        double productsPerSecond,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+}
@@ -0,0 +1,8 @@
+package dev.berke.app.product.api.dto;
+
+public enum ProductBulkJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,25 @@
+package dev.berke.app.product.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// targets either the given product ids or every product of a category
+// basePrice (and optionally minPrice) is only used by PRICE_CHANGE
+public record ProductBulkMutationRequest(
+        @NotNull(message = "Operation is required")
+        ProductBulkOperation operation,
+
+        List<Integer> productIds,
+
+        Integer categoryId,
+
+        @Positive(message = "Base price must be positive")
+        BigDecimal basePrice,
+
+        @Positive(message = "Min price must be positive")
+        BigDecimal minPrice
+) {
+}
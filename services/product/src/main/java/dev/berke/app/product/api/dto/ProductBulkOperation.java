@@ -0,0 +1,7 @@
+package dev.berke.app.product.api.dto;
+
+public enum ProductBulkOperation {
+    PUBLISH,
+    UNPUBLISH,
+    PRICE_CHANGE
+}
@@ -0,0 +1,9 @@
+package dev.berke.app.product.api.dto;
+
+// optional query parameters for product listing
+public record ProductFilterRequest(
+        Integer categoryId,
+
+        Boolean status
+) {
+}
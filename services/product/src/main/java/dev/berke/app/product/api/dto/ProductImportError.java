@@ -0,0 +1,9 @@
+package dev.berke.app.product.api.dto;
+
+// line is the 1-based line number in the uploaded file, sku is null when the row could not be parsed
+public record ProductImportError(
+        long line,
+        String sku,
+        String message
+) {
+}
@@ -0,0 +1,8 @@
+package dev.berke.app.product.api.dto;
+
+// CSV needs a header line with the ProductCreateRequest field names,
+// NDJSON is one ProductCreateRequest object per line
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
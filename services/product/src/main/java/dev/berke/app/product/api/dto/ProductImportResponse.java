@@ -0,0 +1,14 @@
+package dev.berke.app.product.api.dto;
+
+import java.util.List;
+
+// errors holds the first failed rows only, failedRows counts all of them
+public record ProductImportResponse(
+        long totalRows,
+        long importedRows,
+        long failedRows,
+        long durationMs,
+        double rowsPerSecond,
+        List<ProductImportError> errors
+) {
+}
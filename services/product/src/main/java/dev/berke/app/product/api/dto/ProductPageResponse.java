@@ -0,0 +1,10 @@
+package dev.berke.app.product.api.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record ProductPageResponse(
+        List<ProductResponse> products,
+        String nextCursor
+) {
+}
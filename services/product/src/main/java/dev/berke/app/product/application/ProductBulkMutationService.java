@@ -0,0 +1,312 @@
+package dev.berke.app.product.application;
+
+import dev.berke.app.category.domain.repository.CategoryRepository;
+import dev.berke.app.common.outbox.OutboxService;
+import dev.berke.app.outbox.domain.model.ProductOutboxEvent;
+import dev.berke.app.product.api.dto.ProductBulkJobResponse;
+import dev.berke.app.product.api.dto.ProductBulkJobStatus;
+import dev.berke.app.product.api.dto.ProductBulkMutationRequest;
+import dev.berke.app.product.api.dto.ProductBulkOperation;
+import dev.berke.app.product.application.mapper.ProductMapper;
+import dev.berke.app.product.domain.event.ProductUnpublishedEvent;
+import dev.berke.app.product.domain.model.Product;
+import dev.berke.app.product.domain.repository.ProductRepository;
+import dev.berke.app.product.infrastructure.cache.ProductResponseCache;
+import dev.berke.app.product.infrastructure.persistence.ProductBulkJobStore;
+import dev.berke.app.shared.exception.CategoryNotFoundException;
+import dev.berke.app.shared.exception.InvalidProductRequestException;
+import dev.berke.app.shared.exception.ProductBulkJobNotFoundException;
+import dev.berke.app.shared.exception.ProductBulkJobRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+// publish, unpublish or reprice many products in one request
+// 1. the request is validated and stored as a QUEUED job, the caller gets the job id right away
+// 2. a worker walks the targeted ids in chunks (sorted id list, or a keyset over the category)
+// 3. every chunk is loaded, changed and flushed in its own transaction (jdbc batched updates),
+//    the chunk's events are written to the product outbox in the same transaction
+// 4. after the commit the cached responses are evicted and the progress is stored,
+//    the outbox relay sends the events and retries them until kafka acknowledges them
+// a failed job keeps the chunks committed before the failure, together with their events
+@Service
+@Slf4j
+public class ProductBulkMutationService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductMapper productMapper;
+    private final ProductResponseCache productResponseCache;
+    private final OutboxService<ProductOutboxEvent> outboxService;
+    private final ProductBulkJobStore productBulkJobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor productBulkJobExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.product.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.product.bulk.max-product-ids:50000}")
+    private int maxProductIds;
+
+    @Value("${app.kafka.topics.product-events}")
+    private String productEventsTopic;
+
+    public ProductBulkMutationService(
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            ProductMapper productMapper,
+            ProductResponseCache productResponseCache,
+            OutboxService<ProductOutboxEvent> outboxService,
+            ProductBulkJobStore productBulkJobStore,
+            TransactionTemplate transactionTemplate,
+            AsyncTaskExecutor productBulkJobExecutor,
+            MeterRegistry meterRegistry
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productMapper = productMapper;
+        this.productResponseCache = productResponseCache;
+        this.outboxService = outboxService;
+        this.productBulkJobStore = productBulkJobStore;
+        this.transactionTemplate = transactionTemplate;
+        this.productBulkJobExecutor = productBulkJobExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ProductBulkJobResponse submit(ProductBulkMutationRequest request) {
+        validate(request);
+
+        // ids are sorted, so concurrent jobs lock the rows in the same order
+        List<Integer> productIds = request.categoryId() == null
+                ? request.productIds().stream().filter(Objects::nonNull).distinct().sorted().toList()
+                : null;
+        long total = productIds != null
+                ? productIds.size()
+                : productRepository.countByCategoryCategoryId(request.categoryId());
+
+        ProductBulkJobResponse job = new ProductBulkJobResponse(
+                UUID.randomUUID().toString(), request.operation(), ProductBulkJobStatus.QUEUED,
+                total, 0, 0, 0, 0, null, null, null);
+        productBulkJobStore.save(job);
+
+        try {
+            productBulkJobExecutor.execute(() -> run(job, request, productIds));
+        } catch (TaskRejectedException e) {
+            productBulkJobStore.save(finished(job, ProductBulkJobStatus.FAILED, 0, 0, 0,
+                    Instant.now(), "Rejected, too many bulk jobs are queued"));
+            throw new ProductBulkJobRejectedException("Too many bulk jobs are queued, try again later");
+        }
+
+        return job;
+    }
+
+    public ProductBulkJobResponse getJob(String jobId) {
+        return productBulkJobStore.findById(jobId)
+                .orElseThrow(() -> new ProductBulkJobNotFoundException(
+                        String.format("Bulk job not found with ID: %s", jobId)
+                ));
+    }
+
+    private void validate(ProductBulkMutationRequest request) {
+        boolean hasIds = request.productIds() != null && !request.productIds().isEmpty();
+        if (hasIds == (request.categoryId() != null)) {
+            throw new InvalidProductRequestException("Either product IDs or a category ID must be given");
+        }
+
+        if (hasIds && request.productIds().size() > maxProductIds) {
+            throw new InvalidProductRequestException(
+                    String.format("At most %d product IDs can be changed in one job, use the category instead",
+                            maxProductIds)
+            );
+        }
+
+        if (request.categoryId() != null && categoryRepository.findById(request.categoryId()).isEmpty()) {
+            throw new CategoryNotFoundException(
+                    String.format("Category not found with ID: %s", request.categoryId())
+            );
+        }
+
+        if (request.operation() == ProductBulkOperation.PRICE_CHANGE) {
+            if (request.basePrice() == null) {
+                throw new InvalidProductRequestException("Base price is required for a price change");
+            }
+            if (request.minPrice() != null && request.minPrice().compareTo(request.basePrice()) > 0) {
+                throw new InvalidProductRequestException("Min price must not exceed the base price");
+            }
+        }
+    }
+
+    private void run(ProductBulkJobResponse job, ProductBulkMutationRequest request, List<Integer> productIds) {
+        Instant startedAt = Instant.now();
+        long processed = 0;
+        long updated = 0;
+        long queuedEvents = 0;
+
+        productBulkJobStore.save(progress(job, startedAt, processed, updated, queuedEvents));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Counter updatedCounter = Counter.builder("product.bulk.updated")
+                .description("Products changed by bulk jobs")
+                .tag("operation", request.operation().name())
+                .register(meterRegistry);
+
+        try {
+            int offset = 0;
+            Integer afterId = 0;
+
+            while (true) {
+                List<Integer> chunk;
+                if (productIds != null) {
+                    if (offset >= productIds.size()) {
+                        break;
+                    }
+                    chunk = productIds.subList(offset, Math.min(offset + chunkSize, productIds.size()));
+                    offset += chunk.size();
+                } else {
+                    chunk = productRepository.findIdsByCategoryAfter(request.categoryId(), afterId, Limit.of(chunkSize));
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    afterId = chunk.get(chunk.size() - 1);
+                }
+
+                ChunkResult result = transactionTemplate.execute(status -> mutateChunk(chunk, request));
+                queuedEvents += result.queuedEvents();
+
+                processed += chunk.size();
+                updated += result.updated();
+                updatedCounter.increment(result.updated());
+                productBulkJobStore.save(progress(job, startedAt, processed, updated, queuedEvents));
+            }
+
+            productBulkJobStore.save(finished(job, ProductBulkJobStatus.COMPLETED,
+                    processed, updated, queuedEvents, startedAt, null));
+            log.info("Bulk job {} ({}) changed {} of {} products", job.jobId(), request.operation(), updated, processed);
+        } catch (RuntimeException e) {
+            log.error("Bulk job {} ({}) failed after {} products", job.jobId(), request.operation(), processed, e);
+            productBulkJobStore.save(finished(job, ProductBulkJobStatus.FAILED,
+                    processed, updated, queuedEvents, startedAt, e.getMessage()));
+        } finally {
+            sample.stop(Timer.builder("product.bulk.job")
+                    .description("Duration of bulk product jobs")
+                    .tag("operation", request.operation().name())
+                    .register(meterRegistry));
+        }
+    }
+
+    // unknown ids are not returned by the select and count as processed only
+    private ChunkResult mutateChunk(List<Integer> chunk, ProductBulkMutationRequest request) {
+        List<Product> products = productRepository.findAllWithCategoryByIdIn(chunk);
+
+        List<Product> changed = new ArrayList<>();
+        for (Product product : products) {
+            if (apply(product, request)) {
+                changed.add(product);
+            }
+        }
+
+        // flushed first, the events carry the versions raised by these updates
+        productRepository.saveAllAndFlush(changed);
+
+        Map<Integer, Object> events = new LinkedHashMap<>();
+        for (Product product : changed) {
+            switch (request.operation()) {
+                case PUBLISH -> events.put(product.getProductId(), productMapper.toProductPublishedEvent(product));
+                case UNPUBLISH -> events.put(product.getProductId(),
+                        new ProductUnpublishedEvent(product.getProductId(), product.getVersion()));
+                case PRICE_CHANGE -> {
+                    // inactive products are not indexed, they get the new price when published
+                    if (product.isActive()) {
+                        events.put(product.getProductId(), productMapper.toProductPublishedEvent(product));
+                    }
+                }
+            }
+        }
+
+        events.forEach((productId, event) ->
+                outboxService.enqueue(productEventsTopic, String.valueOf(productId), event));
+        productResponseCache.evictAll(changed.stream().map(Product::getProductId).toList());
+
+        return new ChunkResult(changed.size(), events.size());
+    }
+
+    // false when the product already is in the requested state
+    private boolean apply(Product product, ProductBulkMutationRequest request) {
+        return switch (request.operation()) {
+            case PUBLISH -> setStatus(product, true);
+            case UNPUBLISH -> setStatus(product, false);
+            case PRICE_CHANGE -> setPrice(product, request.basePrice(), request.minPrice());
+        };
+    }
+
+    private boolean setStatus(Product product, boolean status) {
+        if (product.isActive() == status) {
+            return false;
+        }
+
+        product.setStatus(status);
+        return true;
+    }
+
+    private boolean setPrice(Product product, BigDecimal basePrice, BigDecimal requestedMinPrice) {
+        BigDecimal minPrice = requestedMinPrice != null ? requestedMinPrice : product.getMinPrice();
+        // a kept min price above the new base price is lowered to it
+        if (minPrice != null && minPrice.compareTo(basePrice) > 0) {
+            minPrice = basePrice;
+        }
+
+        if (sameAmount(product.getBasePrice(), basePrice) && sameAmount(product.getMinPrice(), minPrice)) {
+            return false;
+        }
+
+        product.setBasePrice(basePrice);
+        product.setMinPrice(minPrice);
+        return true;
+    }
+
+    private static boolean sameAmount(BigDecimal current, BigDecimal next) {
+        return current == null ? next == null : next != null && current.compareTo(next) == 0;
+    }
+
+    private static ProductBulkJobResponse progress(
+            ProductBulkJobResponse job, Instant startedAt, long processed, long updated, long queuedEvents
+    ) {
+        return new ProductBulkJobResponse(
+                job.jobId(), job.operation(), ProductBulkJobStatus.RUNNING, job.totalProducts(),
+                processed, updated, queuedEvents, throughput(processed, startedAt), startedAt, null, null);
+    }
+
+    private static ProductBulkJobResponse finished(
+            ProductBulkJobResponse job, ProductBulkJobStatus status,
+            long processed, long updated, long queuedEvents, Instant startedAt, String error
+    ) {
+        return new ProductBulkJobResponse(
+                job.jobId(), job.operation(), status, job.totalProducts(),
+                processed, updated, queuedEvents, throughput(processed, startedAt), startedAt, Instant.now(), error);
+    }
+
+    private static double throughput(long processed, Instant startedAt) {
+        long elapsedMs = Math.max(1, Duration.between(startedAt, Instant.now()).toMillis());
+        return processed * 1000.0 / elapsedMs;
+    }
+
+    private record ChunkResult(int updated, int queuedEvents) {
+    }
+}
@@ -0,0 +1,25 @@
+package dev.berke.app.product.application;
+
+import dev.berke.app.shared.exception.InvalidProductRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// keyset position of the last product on a page, pages are ordered by product id
+public record ProductCursor(
+        Integer productId
+) {
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(productId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new ProductCursor(Integer.valueOf(raw));
+        } catch (RuntimeException e) {
+            throw new InvalidProductRequestException("Invalid product cursor: " + cursor);
+        }
+    }
+}
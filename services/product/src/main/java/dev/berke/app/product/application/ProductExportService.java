@@ -0,0 +1,56 @@
+package dev.berke.app.product.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.product.domain.event.ProductPublishedEvent;
+import dev.berke.app.product.domain.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// streams the active catalog without holding it in memory
+// 1. one keyset page of projected rows at a time, each page is a short query of its own
+// 2. every row is written as a json line and the page is flushed before the next one is read
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.product.export.page-size:1000}")
+    private int pageSize;
+
+    public long exportActiveProducts(Integer afterId, OutputStream out) throws IOException {
+        int after = afterId == null ? 0 : afterId;
+        long exported = 0;
+        long startedAt = System.currentTimeMillis();
+
+        while (true) {
+            List<ProductPublishedEvent> page = productRepository.findActiveExportPage(after, Limit.of(pageSize));
+
+            for (ProductPublishedEvent event : page) {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+            }
+            out.flush();
+            exported += page.size();
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            after = page.get(page.size() - 1).productId();
+        }
+
+        log.info("Exported {} active products in {} ms", exported, System.currentTimeMillis() - startedAt);
+        return exported;
+    }
+}
@@ -0,0 +1,380 @@
+package dev.berke.app.product.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.category.domain.model.Category;
+import dev.berke.app.category.domain.repository.CategoryRepository;
+import dev.berke.app.product.api.dto.ProductCreateRequest;
+import dev.berke.app.product.api.dto.ProductImportError;
+import dev.berke.app.product.api.dto.ProductImportFormat;
+import dev.berke.app.product.api.dto.ProductImportResponse;
+import dev.berke.app.shared.exception.InvalidProductRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// imports products from a CSV or NDJSON stream, the file is read line by line and never held in memory
+// 1. every row is parsed and validated, categories are checked against an in-memory id set
+// 2. valid rows are collected into batches, SKUs repeated in the file are rejected
+// 3. per batch: one query drops SKUs that already exist, one query reserves the ids from product_seq,
+//    one jdbc batch inserts the rows (row by row only if the batch fails)
+// a failed row is reported with its line number, the rest of the file is still imported
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products (product_id, product_name, base_price, min_price, manufacturer,
+                                  sku, created_on, status, category_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.product.import.batch-size:500}")
+    private int batchSize;
+
+    public ProductImportService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            CategoryRepository categoryRepository,
+            ObjectMapper objectMapper,
+            Validator validator,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+
+        this.importedCounter = counter(meterRegistry, "imported");
+        this.failedCounter = counter(meterRegistry, "failed");
+    }
+
+    public ProductImportResponse importProducts(InputStream inputStream, ProductImportFormat format) {
+        long startNanos = System.nanoTime();
+
+        Set<Integer> categoryIds = categoryRepository.findAll().stream()
+                .map(Category::getCategoryId)
+                .collect(Collectors.toSet());
+
+        ImportRun run = new ImportRun();
+        Set<String> skusInFile = new HashSet<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                if (format == ProductImportFormat.CSV && csvColumns == null) {
+                    csvColumns = readCsvHeader(line);
+                    continue;
+                }
+
+                run.totalRows++;
+
+                ProductCreateRequest request;
+                try {
+                    request = format == ProductImportFormat.CSV ? readCsvRow(line, csvColumns) : readJsonRow(line);
+                } catch (RuntimeException e) {
+                    run.fail(lineNumber, null, "Cannot parse row: " + e.getMessage());
+                    continue;
+                }
+
+                String validationError = validate(request, categoryIds);
+                if (validationError != null) {
+                    run.fail(lineNumber, request.sku(), validationError);
+                    continue;
+                }
+
+                if (!skusInFile.add(request.sku())) {
+                    run.fail(lineNumber, request.sku(), "SKU appears more than once in the file");
+                    continue;
+                }
+
+                batch.add(new ImportRow(lineNumber, request));
+                if (batch.size() == batchSize) {
+                    insertBatch(batch, run);
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                insertBatch(batch, run);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Product import stream could not be read", e);
+        }
+
+        long durationNanos = System.nanoTime() - startNanos;
+        double rowsPerSecond = durationNanos == 0 ? 0 : run.totalRows * 1_000_000_000.0 / durationNanos;
+
+        importedCounter.increment(run.importedRows);
+        failedCounter.increment(run.failedRows);
+        log.info("Imported {}/{} products in {} ms ({} rows/s)",
+                run.importedRows, run.totalRows, durationNanos / 1_000_000, Math.round(rowsPerSecond));
+
+        return new ProductImportResponse(
+                run.totalRows,
+                run.importedRows,
+                run.failedRows,
+                durationNanos / 1_000_000,
+                rowsPerSecond,
+                run.errors
+        );
+    }
+
+    private void insertBatch(List<ImportRow> batch, ImportRun run) {
+        // 1. one query for all SKUs of the batch
+        Set<String> existingSkus = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT sku FROM products WHERE sku IN (:skus)",
+                Map.of("skus", batch.stream().map(row -> row.request().sku()).toList()),
+                String.class
+        ));
+
+        List<ImportRow> newRows = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            if (existingSkus.contains(row.request().sku())) {
+                run.fail(row.line(), row.request().sku(), "Product with this SKU code already exists");
+            } else {
+                newRows.add(row);
+            }
+        }
+        if (newRows.isEmpty()) {
+            return;
+        }
+
+        // 2. ids for the whole batch in one round trip
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval('product_seq') FROM generate_series(1, ?)", Long.class, newRows.size());
+
+        // 3. one jdbc batch, falls back to single rows so only the offending rows fail
+        Timestamp createdOn = Timestamp.from(Instant.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    INSERT_SQL,
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            bind(statement, ids.get(i), newRows.get(i).request(), createdOn);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return newRows.size();
+                        }
+                    }
+            ));
+            run.importedRows += newRows.size();
+        } catch (DataAccessException batchException) {
+            log.warn("Product import batch failed, inserting its rows one by one", batchException);
+
+            for (int i = 0; i < newRows.size(); i++) {
+                ImportRow row = newRows.get(i);
+                Long id = ids.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_SQL, statement -> bind(statement, id, row.request(), createdOn));
+                    run.importedRows++;
+                } catch (DataAccessException e) {
+                    run.fail(row.line(), row.request().sku(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private static void bind(
+            PreparedStatement statement,
+            Long id,
+            ProductCreateRequest request,
+            Timestamp createdOn
+    ) throws SQLException {
+        statement.setInt(1, id.intValue());
+        statement.setString(2, request.productName());
+        statement.setBigDecimal(3, request.basePrice());
+        statement.setBigDecimal(4, request.minPrice());
+        statement.setString(5, request.manufacturer());
+        statement.setString(6, request.sku());
+        statement.setTimestamp(7, createdOn);
+        // imported products start unpublished, same as createProduct
+        statement.setBoolean(8, false);
+        statement.setInt(9, request.categoryId());
+    }
+
+    private String validate(ProductCreateRequest request, Set<Integer> categoryIds) {
+        Set<ConstraintViolation<ProductCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+
+        if (!categoryIds.contains(request.categoryId())) {
+            return String.format("Category not found with ID: %s", request.categoryId());
+        }
+        return null;
+    }
+
+    private ProductCreateRequest readJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, ProductCreateRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+    }
+
+    private static Map<String, Integer> readCsvHeader(String line) {
+        List<String> names = splitCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+
+        for (String required : List.of("productName", "basePrice", "manufacturer", "sku", "categoryId")) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidProductRequestException("CSV header is missing the column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static ProductCreateRequest readCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+
+        return new ProductCreateRequest(
+                column(values, columns, "productName"),
+                decimal(column(values, columns, "basePrice")),
+                decimal(column(values, columns, "minPrice")),
+                column(values, columns, "manufacturer"),
+                column(values, columns, "sku"),
+                integer(column(values, columns, "categoryId"))
+        );
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    private static Integer integer(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    // RFC 4180 fields on a single line: commas separate, quotes enclose, "" is a literal quote
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.import.rows")
+                .description("Rows read by product imports")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record ImportRow(
+            long line,
+            ProductCreateRequest request
+    ) {
+    }
+
+    private static class ImportRun {
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+        private final List<ProductImportError> errors = new ArrayList<>();
+
+        void fail(long line, String sku, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportError(line, sku, message));
+            }
+        }
+    }
+}
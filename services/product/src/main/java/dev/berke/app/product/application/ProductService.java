@@ -3,30 +3,42 @@ package dev.berke.app.product.application;
 import dev.berke.app.category.domain.model.Category;
 import dev.berke.app.category.domain.repository.CategoryRepository;
 import dev.berke.app.product.domain.model.Product;
+import dev.berke.app.product.infrastructure.cache.ProductResponseCache;
 import dev.berke.app.product.infrastructure.messaging.ProductEventProducer;
 import dev.berke.app.product.api.dto.ProductCreateRequest;
+import dev.berke.app.product.api.dto.ProductFilterRequest;
+import dev.berke.app.product.api.dto.ProductPageResponse;
 import dev.berke.app.product.api.dto.ProductResponse;
 import dev.berke.app.product.application.mapper.ProductMapper;
 import dev.berke.app.product.domain.repository.ProductRepository;
+import dev.berke.app.product.domain.repository.ProductSpecifications;
 import dev.berke.app.shared.exception.CategoryNotFoundException;
+import dev.berke.app.shared.exception.InvalidProductRequestException;
 import dev.berke.app.shared.exception.ProductAlreadyExistsException;
 import dev.berke.app.shared.exception.ProductNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.common.errors.InvalidRequestException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    public static final int MAX_BATCH_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
     private final ProductEventProducer productEventProducer;
+    private final ProductResponseCache productResponseCache;
 
     public ProductResponse createProduct(ProductCreateRequest productCreateRequest) {
         if(productRepository.existsBySku(productCreateRequest.sku())) {
@@ -45,6 +57,7 @@ public class ProductService {
 
         Product product = productMapper.toProduct(productCreateRequest, category);
         Product savedProduct = productRepository.save(product);
+        productResponseCache.evict(savedProduct.getProductId());
 
         return productMapper.toProductResponse(savedProduct);
     }
@@ -64,17 +77,24 @@ public class ProductService {
         }
 
         product.setStatus(newStatus);
-        Product updatedProduct = productRepository.save(product);
+        // flushed so the event carries the version raised by this update
+        Product updatedProduct = productRepository.saveAndFlush(product);
+        productResponseCache.evict(updatedProduct.getProductId());
 
         if (newStatus) {
             productEventProducer.sendProductPublishedEvent(updatedProduct);
         } else {
-            productEventProducer.sendProductUnpublishedEvent(updatedProduct.getProductId());
+            productEventProducer.sendProductUnpublishedEvent(updatedProduct);
         }
 
         return productMapper.toProductResponse(updatedProduct);
     }
 
+    // serialized ProductResponse json from the two level cache, for the public product GET
+    public byte[] getProductJsonById(Integer productId) {
+        return productResponseCache.get(productId, this::getProductById);
+    }
+
     public ProductResponse getProductById(Integer productId) {
         return productRepository.findById(productId)
                 .map(productMapper::toProductResponse)
@@ -83,13 +103,41 @@ public class ProductService {
                 ));
     }
 
-    public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll()
+    // unknown ids are left out, callers compare the returned ids with the requested ones
+    public List<ProductResponse> getProductsByIds(List<Integer> productIds) {
+        Set<Integer> ids = new LinkedHashSet<>(productIds);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidProductRequestException(
+                    String.format("At most %d product IDs can be requested at once", MAX_BATCH_SIZE)
+            );
+        }
+
+        return productRepository.findAllWithCategoryByIdIn(ids)
                 .stream()
                 .map(productMapper::toProductResponse)
                 .collect(Collectors.toList());
     }
 
+    // keyset pagination by product id, one extra row tells whether there is a next page
+    public ProductPageResponse getProducts(ProductFilterRequest filter, String cursor, int size) {
+        ProductCursor after = cursor == null ? null : ProductCursor.decode(cursor);
+
+        Specification<Product> specification = Specification
+                .where(ProductSpecifications.hasCategoryId(filter.categoryId()))
+                .and(ProductSpecifications.hasStatus(filter.status()))
+                .and(ProductSpecifications.after(after == null ? null : after.productId()));
+
+        List<ProductResponse> products = productRepository.findPage(specification, Limit.of(size + 1));
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = new ProductCursor(products.get(size - 1).productId()).encode();
+        }
+
+        return new ProductPageResponse(products, nextCursor);
+    }
+
     public Integer getCategoryIdOfProduct(Integer productId) {
         return productRepository.findById(productId)
                 .map(product -> product.getCategory().getCategoryId())
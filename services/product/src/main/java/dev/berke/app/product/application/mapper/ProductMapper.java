@@ -1,6 +1,7 @@
 package dev.berke.app.product.application.mapper;
 
 import dev.berke.app.category.domain.model.Category;
+import dev.berke.app.product.domain.event.ProductPublishedEvent;
 import dev.berke.app.product.domain.model.Product;
 import dev.berke.app.product.api.dto.ProductCreateRequest;
 import dev.berke.app.product.api.dto.ProductResponse;
@@ -34,4 +35,20 @@ public class ProductMapper {
                 product.getCategory().getCategoryId()
         );
     }
+
+    public ProductPublishedEvent toProductPublishedEvent(Product product) {
+        return new ProductPublishedEvent(
+                product.getProductId(),
+                product.getProductName(),
+                product.getCategory().getCategoryId(),
+                product.getCategory().getCategoryName(),
+                product.getBasePrice(),
+                product.getMinPrice(),
+                product.getManufacturer(),
+                product.getSku(),
+                true,
+                product.getCreatedOn(),
+                product.getVersion()
+        );
+    }
 }
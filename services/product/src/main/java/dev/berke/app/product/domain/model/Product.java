@@ -6,17 +6,20 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -27,7 +30,10 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_id_product_id", columnList = "category_id, product_id"),
+        @Index(name = "idx_products_status_product_id", columnList = "status, product_id")
+})
 @EqualsAndHashCode(of = {"productId"})
 public class Product {
 
@@ -67,6 +73,13 @@ public class Product {
     )
     private Category category;
 
+    // raised by every update, product events carry it so the search index can drop
+    // writes that are older than the document it already holds (external versioning)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         if (createdOn == null) {
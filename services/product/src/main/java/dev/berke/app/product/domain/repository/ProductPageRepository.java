@@ -0,0 +1,14 @@
+package dev.berke.app.product.domain.repository;
+
+import dev.berke.app.product.api.dto.ProductResponse;
+import dev.berke.app.product.domain.model.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// keyset pages projected straight into ProductResponse, ordered by product id
+public interface ProductPageRepository {
+
+    List<ProductResponse> findPage(Specification<Product> specification, Limit limit);
+}
@@ -1,8 +1,45 @@
 package dev.berke.app.product.domain.repository;
 
+import dev.berke.app.product.domain.event.ProductPublishedEvent;
 import dev.berke.app.product.domain.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductPageRepository {
     boolean existsBySku(String sku);
+
+    // category is fetched in the same select, not once per product
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.productId IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // keyset over the product ids of a category, served by idx_products_category_id_product_id
+    @Query("""
+            SELECT p.productId FROM Product p
+            WHERE p.category.categoryId = :categoryId AND p.productId > :afterId
+            ORDER BY p.productId
+            """)
+    List<Integer> findIdsByCategoryAfter(
+            @Param("categoryId") Integer categoryId,
+            @Param("afterId") Integer afterId,
+            Limit limit
+    );
+
+    long countByCategoryCategoryId(Integer categoryId);
+
+    // export page of active products in event shape, category name from the joined row
+    // keyset on product id over idx_products_status_product_id, no entities are loaded
+    @Query("""
+            SELECT new dev.berke.app.product.domain.event.ProductPublishedEvent(
+                p.productId, p.productName, c.categoryId, c.categoryName, p.basePrice,
+                p.minPrice, p.manufacturer, p.sku, p.status, p.createdOn, p.version)
+            FROM Product p JOIN p.category c
+            WHERE p.status = true AND p.productId > :afterId
+            ORDER BY p.productId
+            """)
+    List<ProductPublishedEvent> findActiveExportPage(@Param("afterId") Integer afterId, Limit limit);
 }
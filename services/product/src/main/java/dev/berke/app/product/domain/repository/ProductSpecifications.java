@@ -0,0 +1,29 @@
+package dev.berke.app.product.domain.repository;
+
+import dev.berke.app.product.domain.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+// each filter is skipped when its value is null, so the generated sql only has the needed predicates
+// and the planner can use idx_products_category_id_product_id or idx_products_status_product_id
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // category id is the foreign key column of products, no join is needed
+    public static Specification<Product> hasCategoryId(Integer categoryId) {
+        return (root, query, cb) -> categoryId == null
+                ? null
+                : cb.equal(root.get("category").get("categoryId"), categoryId);
+    }
+
+    public static Specification<Product> hasStatus(Boolean status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Product> after(Integer productId) {
+        return (root, query, cb) -> productId == null
+                ? null
+                : cb.greaterThan(root.<Integer>get("productId"), productId);
+    }
+}
@@ -0,0 +1,224 @@
+package dev.berke.app.product.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.berke.app.product.api.dto.ProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// two level cache of serialized ProductResponse json, keyed by product id
+// 1. L1: caffeine in this replica, short ttl
+// 2. L2: redis, shared by all replicas
+// 3. database through the given loader
+// a cold key is loaded once per replica, concurrent readers wait for the same load (caffeine compute)
+// writes delete the redis entry and publish the id, so every replica drops its L1 entry
+// every eviction also bumps a per product generation in redis, a loader writes its result back only
+// if the generation is still the one it saw before reading the database, so a row read before a
+// concurrent update cannot be put back after that update's eviction
+@Component
+@Slf4j
+public class ProductResponseCache {
+
+    public static final String INVALIDATION_CHANNEL = "product-cache-invalidation";
+
+    private static final String KEY_PREFIX = "product:response:";
+    private static final String GENERATION_KEY_PREFIX = "product:response-generation:";
+
+    // KEYS: response key, generation key
+    // ARGV: generation seen before the load ('' for none), response, ttl in milliseconds
+    private static final RedisScript<Long> CACHE_SCRIPT = RedisScript.of("""
+            if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    // KEYS: response key, generation key, for every evicted product
+    // ARGV: generation ttl in milliseconds
+    private static final RedisScript<Long> EVICT_SCRIPT = RedisScript.of("""
+            for i = 1, #KEYS, 2 do
+                redis.call('DEL', KEYS[i])
+                redis.call('INCR', KEYS[i + 1])
+                redis.call('PEXPIRE', KEYS[i + 1], ARGV[1])
+            end
+            return #KEYS / 2
+            """, Long.class);
+
+    private final RedisTemplate<String, byte[]> productCacheRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<Integer, byte[]> localCache;
+
+    private final Counter redisHitCounter;
+    private final Counter redisMissCounter;
+
+    @Value("${app.product.cache.redis-ttl:10m}")
+    private Duration redisTtl;
+
+    public ProductResponseCache(
+            RedisTemplate<String, byte[]> productCacheRedisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.product.cache.local-maximum-size:10000}") long localMaximumSize,
+            @Value("${app.product.cache.local-ttl:30s}") Duration localTtl
+    ) {
+        this.productCacheRedisTemplate = productCacheRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "product.responses.local");
+        this.redisHitCounter = Counter.builder("product.cache.redis")
+                .description("Product response lookups in redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMissCounter = Counter.builder("product.cache.redis")
+                .description("Product response lookups in redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public byte[] get(Integer productId, Function<Integer, ProductResponse> loader) {
+        return localCache.get(productId, id -> loadShared(id, loader));
+    }
+
+    // after commit, so the next load reads the committed row, loads that started before
+    // are kept out of redis by the generation bump
+    public void evict(Integer productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(productId);
+                }
+            });
+        } else {
+            evictNow(productId);
+        }
+    }
+
+    // bulk changes delete all keys with one DEL and send one invalidation message per call
+    public void evictAll(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        List<Integer> ids = List.copyOf(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAllNow(ids);
+                }
+            });
+        } else {
+            evictAllNow(ids);
+        }
+    }
+
+    // message body is one id, or a comma separated list from evictAll
+    public void evictLocal(String productIds) {
+        for (String productId : productIds.split(",")) {
+            try {
+                localCache.invalidate(Integer.valueOf(productId.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring product cache invalidation with an invalid id: {}", productId);
+            }
+        }
+    }
+
+    private byte[] loadShared(Integer productId, Function<Integer, ProductResponse> loader) {
+        String key = KEY_PREFIX + productId;
+        String generationKey = GENERATION_KEY_PREFIX + productId;
+
+        // null when redis is unavailable, the response is then served without caching it in redis
+        byte[] generation = null;
+        try {
+            List<byte[]> values = productCacheRedisTemplate.opsForValue().multiGet(List.of(key, generationKey));
+            byte[] cached = values != null ? values.get(0) : null;
+            if (cached != null) {
+                redisHitCounter.increment();
+                return cached;
+            }
+            generation = values != null && values.get(1) != null ? values.get(1) : new byte[0];
+        } catch (DataAccessException e) {
+            // redis is only a cache here, reads keep working from the database
+            log.error("Redis error while reading cached product: {}", productId, e);
+        }
+        redisMissCounter.increment();
+
+        byte[] response = serialize(loader.apply(productId));
+        if (generation == null) {
+            return response;
+        }
+
+        try {
+            productCacheRedisTemplate.execute(CACHE_SCRIPT, List.of(key, generationKey),
+                    generation, response, bytes(redisTtl.toMillis()));
+        } catch (DataAccessException e) {
+            log.error("Redis error while caching product: {}", productId, e);
+        }
+        return response;
+    }
+
+    private void evictNow(Integer productId) {
+        evictAllNow(List.of(productId));
+    }
+
+    private void evictAllNow(List<Integer> productIds) {
+        localCache.invalidateAll(productIds);
+
+        try {
+            List<String> keys = new ArrayList<>(productIds.size() * 2);
+            for (Integer productId : productIds) {
+                keys.add(KEY_PREFIX + productId);
+                keys.add(GENERATION_KEY_PREFIX + productId);
+            }
+            // the generation outlives any load that could have started before this eviction
+            productCacheRedisTemplate.execute(EVICT_SCRIPT, keys, bytes(redisTtl.toMillis()));
+
+            String message = productIds.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+            productCacheRedisTemplate.convertAndSend(
+                    INVALIDATION_CHANNEL, message.getBytes(StandardCharsets.UTF_8));
+        } catch (DataAccessException e) {
+            log.error("Redis error while evicting {} cached products, other replicas keep them until the local ttl",
+                    productIds.size(), e);
+        }
+    }
+
+    private static byte[] bytes(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] serialize(ProductResponse productResponse) {
+        try {
+            return objectMapper.writeValueAsBytes(productResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize product response", e);
+        }
+    }
+}
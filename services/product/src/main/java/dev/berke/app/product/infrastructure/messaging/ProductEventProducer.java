@@ -1,25 +1,29 @@
 package dev.berke.app.product.infrastructure.messaging;
 
+import dev.berke.app.product.application.mapper.ProductMapper;
 import dev.berke.app.product.domain.event.ProductPublishedEvent;
 import dev.berke.app.product.domain.event.ProductUnpublishedEvent;
 import dev.berke.app.product.domain.model.Product;
+import dev.berke.app.common.messaging.KafkaEventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
 public class ProductEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaEventPublisher kafkaEventPublisher;
+    private final ProductMapper productMapper;
     private final String productEventsTopic;
 
     public ProductEventProducer(
-            KafkaTemplate<String, Object> kafkaTemplate,
+            KafkaEventPublisher kafkaEventPublisher,
+            ProductMapper productMapper,
             @Value("${app.kafka.topics.product-events}") String productEventsTopic
     ) {
-        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaEventPublisher = kafkaEventPublisher;
+        this.productMapper = productMapper;
         this.productEventsTopic = productEventsTopic;
     }
 
@@ -27,31 +31,21 @@ public class ProductEventProducer {
         log.info("Preparing to send ProductPublishedEvent for product ID: {}", product.getProductId());
 
         try {
-            ProductPublishedEvent event = new ProductPublishedEvent(
-                    product.getProductId(),
-                    product.getProductName(),
-                    product.getCategory().getCategoryId(),
-                    product.getCategory().getCategoryName(),
-                    product.getBasePrice(),
-                    product.getMinPrice(),
-                    product.getManufacturer(),
-                    product.getSku(),
-                    true,
-                    product.getCreatedOn()
-            );
-            kafkaTemplate.send(productEventsTopic, String.valueOf(event.productId()), event);
+            ProductPublishedEvent event = productMapper.toProductPublishedEvent(product);
+            kafkaEventPublisher.publish(productEventsTopic, String.valueOf(event.productId()), event);
             log.info("Sent ProductPublishedEvent for product ID: {}", product.getProductId());
         } catch (Exception e) {
             log.error("Failed to send ProductPublishedEvent for product ID: {}", product.getProductId(), e);
         }
     }
 
-    public void sendProductUnpublishedEvent(Integer productId) {
+    public void sendProductUnpublishedEvent(Product product) {
+        Integer productId = product.getProductId();
         log.info("Preparing to send ProductUnpublishedEvent for product ID: {}", productId);
 
         try {
-            ProductUnpublishedEvent event = new ProductUnpublishedEvent(productId);
-            kafkaTemplate.send(productEventsTopic, String.valueOf(event.productId()), event);
+            ProductUnpublishedEvent event = new ProductUnpublishedEvent(productId, product.getVersion());
+            kafkaEventPublisher.publish(productEventsTopic, String.valueOf(event.productId()), event);
 
             log.info("Sent ProductUnpublishedEvent for product ID: {}", productId);
         } catch (Exception e) {
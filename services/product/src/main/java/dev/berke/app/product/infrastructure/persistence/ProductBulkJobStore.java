@@ -0,0 +1,58 @@
+package dev.berke.app.product.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.product.api.dto.ProductBulkJobResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// bulk job progress in redis, so any replica can answer the status request
+// entries expire after the retention, jobs cut off by a shutdown stay RUNNING until then
+@Component
+@Slf4j
+public class ProductBulkJobStore {
+
+    private static final String KEY_PREFIX = "product:bulk-job:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.product.bulk.job-retention:24h}")
+    private Duration jobRetention;
+
+    public ProductBulkJobStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void save(ProductBulkJobResponse job) {
+        try {
+            redisTemplate.opsForValue().set(
+                    KEY_PREFIX + job.jobId(), objectMapper.writeValueAsString(job), jobRetention);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize bulk job", e);
+        } catch (DataAccessException e) {
+            // progress reporting only, the job itself keeps running
+            log.error("Redis error while saving progress of bulk job: {}", job.jobId(), e);
+        }
+    }
+
+    public Optional<ProductBulkJobResponse> findById(String jobId) {
+        String json = redisTemplate.opsForValue().get(KEY_PREFIX + jobId);
+        if (json == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(objectMapper.readValue(json, ProductBulkJobResponse.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot deserialize bulk job: " + jobId, e);
+        }
+    }
+}
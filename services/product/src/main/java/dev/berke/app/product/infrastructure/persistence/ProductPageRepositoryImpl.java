@@ -0,0 +1,56 @@
+package dev.berke.app.product.infrastructure.persistence;
+
+import dev.berke.app.product.api.dto.ProductResponse;
+import dev.berke.app.product.domain.model.Product;
+import dev.berke.app.product.domain.repository.ProductPageRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// criteria query with a constructor projection, no entities or categories are loaded
+// the specification only adds the predicates of the filters that are set
+@RequiredArgsConstructor
+public class ProductPageRepositoryImpl implements ProductPageRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ProductResponse> findPage(Specification<Product> specification, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+        Root<Product> product = query.from(Product.class);
+
+        query.select(cb.construct(
+                ProductResponse.class,
+                product.get("productId"),
+                product.get("productName"),
+                product.get("basePrice"),
+                product.get("minPrice"),
+                product.get("manufacturer"),
+                product.get("sku"),
+                product.get("createdOn"),
+                product.get("status"),
+                product.get("category").get("categoryId")
+        ));
+
+        Predicate predicate = specification.toPredicate(product, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(product.get("productId")));
+
+        TypedQuery<ProductResponse> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+}
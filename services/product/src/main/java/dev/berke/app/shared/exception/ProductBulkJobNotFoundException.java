@@ -0,0 +1,12 @@
+package dev.berke.app.shared.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ProductBulkJobNotFoundException extends RuntimeException {
+
+    public ProductBulkJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package dev.berke.app.shared.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProductBulkJobRejectedException extends RuntimeException {
+
+    public ProductBulkJobRejectedException(String message) {
+        super(message);
+    }
+}
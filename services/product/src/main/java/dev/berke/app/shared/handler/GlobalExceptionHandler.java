@@ -3,7 +3,10 @@ package dev.berke.app.shared.handler;
 import dev.berke.app.shared.exception.CategoryNotFoundException;
 import dev.berke.app.shared.exception.InvalidProductRequestException;
 import dev.berke.app.shared.exception.ProductAlreadyExistsException;
+import dev.berke.app.shared.exception.ProductBulkJobNotFoundException;
+import dev.berke.app.shared.exception.ProductBulkJobRejectedException;
 import dev.berke.app.shared.exception.ProductNotFoundException;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -26,7 +29,8 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
-    @ExceptionHandler({ProductNotFoundException.class, CategoryNotFoundException.class})
+    @ExceptionHandler({ProductNotFoundException.class, CategoryNotFoundException.class,
+            ProductBulkJobNotFoundException.class})
     ProblemDetail handleResourceNotFoundException(RuntimeException ex) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
                 HttpStatus.NOT_FOUND, ex.getMessage());
@@ -48,6 +52,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(ProductBulkJobRejectedException.class)
+    ProblemDetail handleProductBulkJobRejectedException(ProductBulkJobRejectedException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+
+        problemDetail.setTitle("Bulk Job Rejected");
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
     // common infrastructure exceptions
 
     // business logic check
@@ -105,6 +120,32 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return createResponseEntity(problemDetail, headers, status, request);
     }
 
+    // validation for request parameters
+    @ExceptionHandler(ConstraintViolationException.class)
+    ProblemDetail handleConstraintViolationException(ConstraintViolationException ex) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.BAD_REQUEST, "Validation failed for request parameters");
+
+        problemDetail.setTitle("Constraint Violation");
+
+        Map<String, String> errors = new HashMap<>();
+
+        ex.getConstraintViolations().forEach(violation -> {
+            String propertyPath = violation.getPropertyPath().toString();
+
+            String field = propertyPath.contains(".")
+                    ? propertyPath.substring(propertyPath.lastIndexOf(".") + 1)
+                    : propertyPath;
+
+            errors.put(field, violation.getMessage());
+        });
+
+        problemDetail.setProperty("errors", errors);
+        problemDetail.setProperty("timestamp", Instant.now());
+
+        return problemDetail;
+    }
+
     // unexpected 500 errors
     @ExceptionHandler(Exception.class)
     ProblemDetail handleGlobalException(Exception ex) {
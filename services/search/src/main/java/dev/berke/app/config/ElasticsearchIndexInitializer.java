@@ -1,7 +1,7 @@
 package dev.berke.app.config;
 
 import dev.berke.app.ordersearch.domain.document.OrderDocument;
-import dev.berke.app.productsearch.domain.document.ProductDocument;
+import dev.berke.app.productsearch.infrastructure.elasticsearch.ProductIndexManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.ContextRefreshedEvent;
@@ -16,10 +16,16 @@ import org.springframework.stereotype.Component;
 public class ElasticsearchIndexInitializer {
 
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductIndexManager productIndexManager;
 
     @EventListener(ContextRefreshedEvent.class)
     public void onApplicationEvent(ContextRefreshedEvent event) {
-        createIndexAndMapping(ProductDocument.class);
+        // products are searched through an alias, see ProductIndexManager
+        productIndexManager.createIfMissing();
+        if (productIndexManager.isLegacyIndex()) {
+            log.warn("Product index {} is not an alias yet, product events are written without versions "
+                    + "until POST /api/v1/search/products/reindex rebuilds it", productIndexManager.alias());
+        }
         createIndexAndMapping(OrderDocument.class);
         log.info("Elasticsearch index initialization finished!");
     }
@@ -0,0 +1,46 @@
+package dev.berke.app.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Properties;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    // batch listener for product events, the listener acknowledges after the bulk request
+    // a failed batch is retried with backoff until elasticsearch accepts it, offsets are never
+    // committed past events that were not written (partition stalls instead of losing updates)
+    // the default factory (order events) is left as it is
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> productEventBatchListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${app.search.product-events.max-batch-size:500}") int maxBatchSize,
+            @Value("${app.search.product-events.max-retry-interval-ms:30000}") long maxRetryIntervalMs
+    ) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxBatchSize);
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxInterval(maxRetryIntervalMs);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+
+        return factory;
+    }
+}
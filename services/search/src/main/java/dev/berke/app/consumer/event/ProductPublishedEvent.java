@@ -13,6 +13,7 @@ public record ProductPublishedEvent(
         String manufacturer,
         String sku,
         Boolean status,
-        Instant createdOn
+        Instant createdOn,
+        Long version
 ) {
 }
\ No newline at end of file
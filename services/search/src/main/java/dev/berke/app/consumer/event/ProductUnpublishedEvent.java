@@ -1,6 +1,7 @@
 package dev.berke.app.consumer.event;
 
 public record ProductUnpublishedEvent(
-        Integer productId
+        Integer productId,
+        Long version
 ) {
 }
\ No newline at end of file
@@ -1,36 +1,36 @@
 package dev.berke.app.consumer.listener;
 
-import dev.berke.app.consumer.event.ProductPublishedEvent;
-import dev.berke.app.consumer.event.ProductUnpublishedEvent;
 import dev.berke.app.productsearch.application.ProductSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaHandler;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+// batch listener, one poll of product events becomes one elasticsearch bulk request
+// offsets are committed only after the bulk request succeeded, a failure throws and
+// the error handler of the container factory retries the same batch
 @Component
 @Slf4j
 @RequiredArgsConstructor
-@KafkaListener(topics = "${app.kafka.topics.product-events}", groupId = "search-service-group")
 public class ProductEventListener {
 
     private final ProductSearchService productSearchService;
 
-    @KafkaHandler
-    public void handleProductPublished(ProductPublishedEvent event) {
-        log.info("Kafka listener received a ProductPublishedEvent");
-        productSearchService.indexProduct(event);
-    }
-
-    @KafkaHandler
-    public void handleProductUnpublished(ProductUnpublishedEvent event) {
-        log.info("Kafka listener received a ProductUnpublishedEvent");
-        productSearchService.deleteProduct(event.productId());
-    }
+    @KafkaListener(
+            topics = "${app.kafka.topics.product-events}",
+            groupId = "search-service-group",
+            containerFactory = "productEventBatchListenerFactory"
+    )
+    public void handleProductEvents(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        log.debug("Kafka listener received {} product events", records.size());
 
-    @KafkaHandler(isDefault = true)
-    public void handleUnknown(Object object) {
-        log.warn("Received an unknown event type from Kafka: {}", object);
+        productSearchService.applyProductEvents(records.stream()
+                .map(ConsumerRecord::value)
+                .toList());
+        acknowledgment.acknowledge();
     }
-}
\ No newline at end of file
+}
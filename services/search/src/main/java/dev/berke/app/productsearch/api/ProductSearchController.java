@@ -2,13 +2,16 @@ package dev.berke.app.productsearch.api;
 
 import dev.berke.app.productsearch.api.dto.AutocompleteSuggestionResponse;
 import dev.berke.app.productsearch.api.dto.ProductSearchRequest;
+import dev.berke.app.productsearch.api.dto.ProductReindexResponse;
 import dev.berke.app.productsearch.api.dto.ProductSearchResponse;
+import dev.berke.app.productsearch.application.ProductReindexService;
 import dev.berke.app.productsearch.application.ProductSearchService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -24,6 +27,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProductSearchController {
 
     private final ProductSearchService productSearchService;
+    private final ProductReindexService productReindexService;
 
     @PostMapping
     public ResponseEntity<ProductSearchResponse> searchProducts(
@@ -41,4 +45,13 @@ public class ProductSearchController {
     ) {
         return ResponseEntity.ok(productSearchService.getAutocompleteSuggestions(query));
     }
-}
\ No newline at end of file
+
+    // rebuilds the index from the product-service export, recreate drops the index first
+    @PostMapping("/reindex")
+    @PreAuthorize("hasRole('BACKOFFICE')")
+    public ResponseEntity<ProductReindexResponse> reindex(
+            @RequestParam(value = "recreate", defaultValue = "false") boolean recreate
+    ) {
+        return ResponseEntity.ok(productReindexService.reindex(recreate));
+    }
+}
@@ -0,0 +1,11 @@
+package dev.berke.app.productsearch.api.dto;
+
+// staleProducts were not written, the index already held a newer version of them
+public record ProductReindexResponse(
+        long indexedProducts,
+        long staleProducts,
+        long failedProducts,
+        long durationMs,
+        double productsPerSecond
+) {
+}
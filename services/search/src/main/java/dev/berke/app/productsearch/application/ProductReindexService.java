@@ -0,0 +1,222 @@
+package dev.berke.app.productsearch.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.berke.app.consumer.event.ProductPublishedEvent;
+import dev.berke.app.productsearch.api.dto.ProductReindexResponse;
+import dev.berke.app.productsearch.application.mapper.ProductMapper;
+import dev.berke.app.productsearch.domain.document.ProductDocument;
+import dev.berke.app.productsearch.domain.repository.ProductBulkWriteResult;
+import dev.berke.app.productsearch.domain.repository.ProductSearchRepository;
+import dev.berke.app.productsearch.infrastructure.client.ProductExportClient;
+import dev.berke.app.productsearch.infrastructure.elasticsearch.ProductIndexManager;
+import dev.berke.app.productsearch.infrastructure.messaging.ProductEventReplayer;
+import dev.berke.app.shared.exception.InvalidSearchRequestException;
+import dev.berke.app.shared.exception.SearchOperationException;
+import feign.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// rebuilds the product index from the product-service export stream
+// 1. recreate builds a new concrete index next to the live one (mapping changes, corrupted index),
+//    otherwise the live index behind the alias is written in place
+// 2. turns off the refresh of the target index while loading
+// 3. reads the ndjson stream line by line and bulk indexes fixed size batches,
+//    the next batch is parsed while the previous bulk request is in flight
+//    rows carry the product version, an export row older than the document an event already
+//    wrote (e.g. the product was unpublished meanwhile) is skipped as stale
+// 4. restores the refresh interval and refreshes once at the end
+// 5. recreate only: replays the product events the listeners wrote to the live index meanwhile
+//    (from replay-lookback before the start, to cover consumer lag), moves the alias to the
+//    new index, then replays the events that arrived between the first replay and the swap
+// the live index keeps serving searches and incremental events until the alias is moved,
+// a failed recreate drops the new index and leaves the live one untouched
+@Service
+@Slf4j
+public class ProductReindexService {
+
+    private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+
+    private final ProductExportClient productExportClient;
+    private final ProductSearchRepository productSearchRepository;
+    private final ProductIndexManager productIndexManager;
+    private final ProductEventReplayer productEventReplayer;
+    private final ProductSearchService productSearchService;
+    private final ObjectMapper objectMapper;
+    private final ProductMapper productMapper;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.search.reindex.bulk-size:1000}")
+    private int bulkSize;
+
+    @Value("${app.search.reindex.replay-lookback:1m}")
+    private Duration replayLookback;
+
+    public ProductReindexService(
+            ProductExportClient productExportClient,
+            ProductSearchRepository productSearchRepository,
+            ProductIndexManager productIndexManager,
+            ProductEventReplayer productEventReplayer,
+            ProductSearchService productSearchService,
+            ObjectMapper objectMapper,
+            ProductMapper productMapper
+    ) {
+        this.productExportClient = productExportClient;
+        this.productSearchRepository = productSearchRepository;
+        this.productIndexManager = productIndexManager;
+        this.productEventReplayer = productEventReplayer;
+        this.productSearchService = productSearchService;
+        this.objectMapper = objectMapper;
+        this.productMapper = productMapper;
+    }
+
+    public ProductReindexResponse reindex(boolean recreate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidSearchRequestException("A product reindex is already running");
+        }
+
+        try {
+            if (!recreate && productIndexManager.isLegacyIndex()) {
+                log.info("Product index {} is not an alias yet, rebuilding it behind one", productIndexManager.alias());
+                recreate = true;
+            }
+            return recreate ? rebuildAndSwap() : rebuild(productIndexManager.alias());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ProductReindexResponse rebuildAndSwap() {
+        String alias = productIndexManager.alias();
+        Map<TopicPartition, Long> replayFrom = productEventReplayer.offsetsAt(Instant.now().minus(replayLookback));
+        String index = productIndexManager.createIndex();
+
+        ProductReindexResponse response;
+        Map<TopicPartition, Long> replayed;
+        try {
+            response = rebuild(index);
+            replayed = productEventReplayer.replay(replayFrom,
+                    events -> productSearchService.applyProductEvents(events, index));
+            productIndexManager.swapAlias(index);
+        } catch (RuntimeException e) {
+            log.error("Rebuilding the product index into {} failed, {} is left as it was", index, alias);
+            try {
+                productIndexManager.deleteIndex(index);
+            } catch (SearchOperationException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+        }
+
+        productEventReplayer.replay(replayed, events -> productSearchService.applyProductEvents(events, alias));
+        return response;
+    }
+
+    private ProductReindexResponse rebuild(String index) {
+        long startedAt = System.currentTimeMillis();
+        long read = 0;
+        ProductBulkWriteResult total = new ProductBulkWriteResult(0, 0, 0);
+
+        productIndexManager.setRefreshInterval(index, "-1");
+        try (ExecutorService bulkExecutor = Executors.newSingleThreadExecutor();
+             Response response = productExportClient.exportActiveProducts(null)) {
+
+            if (response.status() != 200 || response.body() == null) {
+                throw new SearchOperationException(
+                        "Product export failed with status " + response.status(), null);
+            }
+
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body().asInputStream(), StandardCharsets.UTF_8));
+
+            CompletableFuture<ProductBulkWriteResult> inFlight =
+                    CompletableFuture.completedFuture(new ProductBulkWriteResult(0, 0, 0));
+            List<ProductDocument> batch = new ArrayList<>(bulkSize);
+            Map<Integer, Long> versions = new HashMap<>();
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                ProductPublishedEvent event = objectMapper.readValue(line, ProductPublishedEvent.class);
+                batch.add(productMapper.toDocument(event));
+                if (event.version() != null) {
+                    versions.put(event.productId(), event.version());
+                }
+
+                if (batch.size() >= bulkSize) {
+                    // at most one bulk request in flight, memory stays at two batches
+                    total = add(total, join(inFlight));
+                    read += batch.size();
+                    List<ProductDocument> documents = batch;
+                    Map<Integer, Long> documentVersions = versions;
+                    inFlight = CompletableFuture.supplyAsync(
+                            () -> productSearchRepository.bulkWrite(index, documents, documentVersions), bulkExecutor);
+                    batch = new ArrayList<>(bulkSize);
+                    versions = new HashMap<>();
+                }
+            }
+
+            total = add(total, join(inFlight));
+            if (!batch.isEmpty()) {
+                read += batch.size();
+                total = add(total, productSearchRepository.bulkWrite(index, batch, versions));
+            }
+        } catch (IOException e) {
+            throw new SearchOperationException("Failed to read the product export stream", e);
+        } finally {
+            productIndexManager.setRefreshInterval(index, DEFAULT_REFRESH_INTERVAL);
+            productIndexManager.refresh(index);
+        }
+
+        long durationMs = System.currentTimeMillis() - startedAt;
+        log.info("Reindexed {} products into {} ({} stale, {} failed) in {} ms",
+                total.written(), index, total.stale(), total.rejected(), durationMs);
+
+        return new ProductReindexResponse(
+                total.written(),
+                total.stale(),
+                total.rejected(),
+                durationMs,
+                read * 1000.0 / Math.max(1, durationMs)
+        );
+    }
+
+    // bulk errors surface as they are, not wrapped by the async stage
+    private static ProductBulkWriteResult join(CompletableFuture<ProductBulkWriteResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ProductBulkWriteResult add(ProductBulkWriteResult total, ProductBulkWriteResult batch) {
+        return new ProductBulkWriteResult(
+                total.written() + batch.written(),
+                total.stale() + batch.stale(),
+                total.rejected() + batch.rejected());
+    }
+}
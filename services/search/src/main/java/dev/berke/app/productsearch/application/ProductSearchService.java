@@ -1,13 +1,17 @@
 package dev.berke.app.productsearch.application;
 
 import dev.berke.app.consumer.event.ProductPublishedEvent;
+import dev.berke.app.consumer.event.ProductUnpublishedEvent;
 import dev.berke.app.productsearch.api.dto.SearchAggregation;
+import dev.berke.app.productsearch.application.mapper.ProductMapper;
 import dev.berke.app.productsearch.domain.document.ProductDocument;
 import dev.berke.app.productsearch.api.dto.AutocompleteSuggestionResponse;
 import dev.berke.app.productsearch.api.dto.ProductSearchRequest;
 import dev.berke.app.productsearch.api.dto.ProductSearchResponse;
 import dev.berke.app.productsearch.api.dto.ProductSearchResult;
+import dev.berke.app.productsearch.domain.repository.ProductBulkWriteResult;
 import dev.berke.app.productsearch.domain.repository.ProductSearchRepository;
+import dev.berke.app.productsearch.infrastructure.elasticsearch.ProductIndexManager;
 import dev.berke.app.shared.exception.InvalidSearchRequestException;
 import dev.berke.app.shared.exception.SearchOperationException;
 import lombok.RequiredArgsConstructor;
@@ -22,7 +26,10 @@ import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.support.PageableExecutionUtils;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.StringTermsAggregate;
@@ -33,23 +40,56 @@ import co.elastic.clients.elasticsearch._types.aggregations.StringTermsAggregate
 public class ProductSearchService {
 
     private final ProductSearchRepository productSearchRepository;
+    private final ProductMapper productMapper;
+    private final ProductIndexManager productIndexManager;
 
-    public void indexProduct(ProductPublishedEvent event) {
-        log.info("INDEX event received for product ID: {}", event.productId());
+    public ProductBulkWriteResult applyProductEvents(List<Object> events) {
+        return applyProductEvents(events, productIndexManager.alias());
+    }
 
-        try {
-            ProductDocument document = mapToProductDocument(event);
-            productSearchRepository.save(document);
+    // events of one kafka batch in partition order, only the last event per product is applied
+    // all resulting writes go to elasticsearch in a single bulk request
+    public ProductBulkWriteResult applyProductEvents(List<Object> events, String index) {
+        Map<Integer, Object> lastEventByProductId = new LinkedHashMap<>();
+        for (Object event : events) {
+            switch (event) {
+                case ProductPublishedEvent published -> lastEventByProductId.put(published.productId(), published);
+                case ProductUnpublishedEvent unpublished -> lastEventByProductId.put(unpublished.productId(), unpublished);
+                case null, default -> log.warn("Skipping an unknown product event: {}", event);
+            }
+        }
 
-            log.info("Successfully indexed product with ID: {}", document.getProductId());
-        } catch (Exception e) {
-            log.error("Failed to index product ID: {}", event.productId(), e);
+        List<ProductDocument> documents = new ArrayList<>();
+        Map<Integer, Long> versions = new HashMap<>();
+        int unpublished = 0;
+        for (Object event : lastEventByProductId.values()) {
+            if (event instanceof ProductPublishedEvent published) {
+                documents.add(productMapper.toDocument(published));
+                putVersion(versions, published.productId(), published.version());
+            } else if (event instanceof ProductUnpublishedEvent unpublishedEvent) {
+                documents.add(productMapper.toUnpublishedDocument(unpublishedEvent));
+                putVersion(versions, unpublishedEvent.productId(), unpublishedEvent.version());
+                unpublished++;
+            }
         }
+
+        // written without versions until a legacy index is rebuilt, see ProductIndexManager
+        if (!productIndexManager.acceptsExternalVersions(index)) {
+            versions.clear();
+        }
+
+        ProductBulkWriteResult result = productSearchRepository.bulkWrite(index, documents, versions);
+        log.info("Applied {} product events to {} as {} published and {} unpublished products ({} stale, {} rejected)",
+                events.size(), index, documents.size() - unpublished, unpublished, result.stale(), result.rejected());
+
+        return result;
     }
 
-    public void deleteProduct(Integer productId) {
-        log.info("DELETE event received for product ID: {}", productId);
-        productSearchRepository.deleteById(productId);
+    // events sent before products were versioned have none, they are written without a version
+    private static void putVersion(Map<Integer, Long> versions, Integer productId, Long version) {
+        if (version != null) {
+            versions.put(productId, version);
+        }
     }
 
     public ProductSearchResponse searchProducts(ProductSearchRequest request) {
@@ -86,23 +126,6 @@ public class ProductSearchService {
         return new AutocompleteSuggestionResponse(suggestions);
     }
 
-    private ProductDocument mapToProductDocument(ProductPublishedEvent productPublishedEvent) {
-        return ProductDocument.builder()
-                .productId(productPublishedEvent.productId())
-                .productName(productPublishedEvent.productName())
-                .category(ProductDocument.CategoryDocument.builder()
-                        .id(productPublishedEvent.categoryId().toString())
-                        .name(productPublishedEvent.categoryName())
-                        .build())
-                .basePrice(productPublishedEvent.basePrice())
-                .minPrice(productPublishedEvent.minPrice())
-                .manufacturer(productPublishedEvent.manufacturer())
-                .sku(productPublishedEvent.sku())
-                .status(productPublishedEvent.status())
-                .createdOn(productPublishedEvent.createdOn())
-                .build();
-    }
-
     private Page<ProductSearchResult> toProductSearchResultPage(
             ProductSearchRequest productSearchRequest,
             SearchHits<ProductDocument> searchHits
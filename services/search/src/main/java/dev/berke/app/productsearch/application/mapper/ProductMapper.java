@@ -0,0 +1,36 @@
+package dev.berke.app.productsearch.application.mapper;
+
+import dev.berke.app.consumer.event.ProductPublishedEvent;
+import dev.berke.app.consumer.event.ProductUnpublishedEvent;
+import dev.berke.app.productsearch.domain.document.ProductDocument;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductMapper {
+
+    public ProductDocument toDocument(ProductPublishedEvent event) {
+        return ProductDocument.builder()
+                .productId(event.productId())
+                .productName(event.productName())
+                .category(ProductDocument.CategoryDocument.builder()
+                        .id(event.categoryId().toString())
+                        .name(event.categoryName())
+                        .build())
+                .basePrice(event.basePrice())
+                .minPrice(event.minPrice())
+                .manufacturer(event.manufacturer())
+                .sku(event.sku())
+                .status(event.status())
+                .createdOn(event.createdOn())
+                .build();
+    }
+
+    // kept in place of a deleted document, so its version stops older writes of the product
+    // (a delete would forget the version); searches only match active products
+    public ProductDocument toUnpublishedDocument(ProductUnpublishedEvent event) {
+        return ProductDocument.builder()
+                .productId(event.productId())
+                .status(false)
+                .build();
+    }
+}
@@ -4,7 +4,14 @@ import dev.berke.app.productsearch.api.dto.ProductSearchRequest;
 import dev.berke.app.productsearch.domain.document.ProductDocument;
 import org.springframework.data.elasticsearch.core.SearchHits;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface CustomProductSearchRepository {
 
     SearchHits<ProductDocument> search(ProductSearchRequest productSearchRequest);
+
+    // index is the alias or a concrete index that is being rebuilt,
+    // versions are the product versions by product id (missing for events without one)
+    ProductBulkWriteResult bulkWrite(String index, Collection<ProductDocument> documents, Map<Integer, Long> versions);
 }
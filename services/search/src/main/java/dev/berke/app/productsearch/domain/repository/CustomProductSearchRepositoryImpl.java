@@ -1,27 +1,41 @@
 package dev.berke.app.productsearch.domain.repository;
 
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.VersionType;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.json.JsonData;
 import dev.berke.app.productsearch.api.dto.ProductSearchRequest;
 import dev.berke.app.productsearch.domain.document.ProductDocument;
+import dev.berke.app.shared.exception.SearchOperationException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.document.Document;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
+@Slf4j
 public class CustomProductSearchRepositoryImpl implements CustomProductSearchRepository {
 
     private static final String AGG_CATEGORY = "category_agg";
@@ -35,6 +49,7 @@ public class CustomProductSearchRepositoryImpl implements CustomProductSearchRep
     private static final String FIELD_STATUS = "status";
     private static final String FIELD_CREATED_ON = "created_on";
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
 
     // business logic to search products
     // full-text search
@@ -65,6 +80,71 @@ public class CustomProductSearchRepositoryImpl implements CustomProductSearchRep
         );
     }
 
+    // one _bulk request with index operations, no refresh is forced
+    // 1. documents go through the spring data converter, same field names and date format as save()
+    // 2. documents with a product version are written with external versioning, elasticsearch
+    //    keeps the higher version, so export rows and replayed events cannot overwrite newer state
+    // 3. items failing with 429 or 5xx (and a failed request) throw, so the caller retries the whole batch
+    // 4. version conflicts (409) are older than the stored document and counted as stale
+    // 5. other failed items (e.g. mapping errors) would fail again, they are logged and counted
+    @Override
+    public ProductBulkWriteResult bulkWrite(
+            String index,
+            Collection<ProductDocument> documents,
+            Map<Integer, Long> versions
+    ) {
+        List<BulkOperation> operations = new ArrayList<>(documents.size());
+        for (ProductDocument document : documents) {
+            Document source = elasticsearchOperations.getElasticsearchConverter().mapObject(document);
+            Long version = versions.get(document.getProductId());
+            operations.add(BulkOperation.of(op -> op.index(indexOp -> {
+                indexOp.index(index)
+                        .id(String.valueOf(document.getProductId()))
+                        .document(source);
+                if (version != null) {
+                    indexOp.version(version).versionType(VersionType.External);
+                }
+                return indexOp;
+            })));
+        }
+
+        if (operations.isEmpty()) {
+            return new ProductBulkWriteResult(0, 0, 0);
+        }
+
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(bulk -> bulk.operations(operations));
+        } catch (IOException | ElasticsearchException e) {
+            throw new SearchOperationException("Bulk request for products failed", e);
+        }
+
+        int stale = 0;
+        int rejected = 0;
+        if (response.errors()) {
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() == null) {
+                    continue;
+                }
+
+                if (item.status() == 409) {
+                    stale++;
+                    continue;
+                }
+
+                if (item.status() == 429 || item.status() >= 500) {
+                    throw new SearchOperationException(String.format(
+                            "Bulk item for product %s failed with status %d", item.id(), item.status()), null);
+                }
+
+                rejected++;
+                log.error("Product {} was rejected by elasticsearch: {}", item.id(), item.error().reason());
+            }
+        }
+
+        return new ProductBulkWriteResult(operations.size() - stale - rejected, stale, rejected);
+    }
+
     private BoolQuery buildBoolQuery(ProductSearchRequest request) {
         BoolQuery.Builder builder = new BoolQuery.Builder();
 
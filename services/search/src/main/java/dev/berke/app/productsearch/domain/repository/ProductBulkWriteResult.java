@@ -0,0 +1,10 @@
+package dev.berke.app.productsearch.domain.repository;
+
+// stale counts documents older than the version already indexed, they are skipped on purpose
+// rejected counts documents elasticsearch refused for good (e.g. mapping errors), they are not retried
+public record ProductBulkWriteResult(
+        int written,
+        int stale,
+        int rejected
+) {
+}
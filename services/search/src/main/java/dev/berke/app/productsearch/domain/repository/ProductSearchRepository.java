@@ -11,6 +11,7 @@ import java.util.List;
 public interface ProductSearchRepository extends ElasticsearchRepository<ProductDocument, Integer>,
         CustomProductSearchRepository {
 
-    @Query("{\"match\": {\"product_name.autocomplete\": \"?0\"}}")
+    // unpublished products stay in the index as inactive documents, see ProductMapper
+    @Query("{\"bool\": {\"must\": {\"match\": {\"product_name.autocomplete\": \"?0\"}}, \"filter\": {\"term\": {\"status\": true}}}}")
     List<ProductDocument> findByProductNameAutocomplete(String query);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package dev.berke.app.productsearch.infrastructure.client;
+
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@FeignClient(name = "product-service", contextId = "productExportClient", path = "/api/v1/products")
+public interface ProductExportClient {
+
+    // raw response, the ndjson body is read as a stream and has to be closed by the caller
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    Response exportActiveProducts(@RequestParam(value = "after", required = false) Integer afterId);
+}
@@ -0,0 +1,146 @@
+package dev.berke.app.productsearch.infrastructure.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import dev.berke.app.productsearch.domain.document.ProductDocument;
+import dev.berke.app.shared.exception.SearchOperationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// the index name of ProductDocument is an alias, searches and event writes go through it
+// the alias points at one concrete index named <alias>-<creation millis>, a rebuild fills
+// a new concrete index and moves the alias over in one atomic request
+// a concrete index that still carries the alias name (created before the alias) is replaced
+// by the first rebuild
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductIndexManager {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+
+    // set once the alias exists, it never turns back into a concrete index
+    private volatile boolean aliased;
+
+    public String alias() {
+        return elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class).getIndexName();
+    }
+
+    public void createIfMissing() {
+        if (elasticsearchOperations.indexOps(IndexCoordinates.of(alias())).exists()) {
+            log.info("Index for {} already exists.", ProductDocument.class.getSimpleName());
+            return;
+        }
+
+        swapAlias(createIndex());
+        log.info("Created index and mapping for {} behind alias {}.", ProductDocument.class.getSimpleName(), alias());
+    }
+
+    // new concrete index with the settings and mapping of ProductDocument, not reachable through the alias yet
+    public String createIndex() {
+        String index = alias() + "-" + System.currentTimeMillis();
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(index));
+        indexOps.create(indexOps.createSettings(ProductDocument.class), indexOps.createMapping(ProductDocument.class));
+
+        log.info("Created index {}", index);
+        return index;
+    }
+
+    // true while the alias name is still taken by a concrete index
+    public boolean isLegacyIndex() {
+        try {
+            String alias = alias();
+            return !elasticsearchClient.indices().existsAlias(request -> request.name(alias)).value()
+                    && elasticsearchClient.indices().exists(request -> request.index(alias)).value();
+        } catch (IOException | ElasticsearchException e) {
+            throw new SearchOperationException("Failed to look up the product index alias", e);
+        }
+    }
+
+    // a legacy index holds internal versions (1 and up), products start at version 0, so external
+    // versions would be rejected as stale until the index is rebuilt behind the alias
+    // concrete indices from createIndex always take them, the alias is looked up on every call
+    // while it is still a legacy index, so a rebuild by another instance is seen at once
+    public boolean acceptsExternalVersions(String index) {
+        if (aliased || !index.equals(alias())) {
+            return true;
+        }
+        aliased = !isLegacyIndex();
+        return aliased;
+    }
+
+    // points the alias at the given index and deletes the indices it pointed at before,
+    // a legacy concrete index with the alias name is removed in the same request
+    public void swapAlias(String index) {
+        String alias = alias();
+        try {
+            List<String> previous = elasticsearchClient.indices().existsAlias(request -> request.name(alias)).value()
+                    ? List.copyOf(elasticsearchClient.indices().getAlias(request -> request.name(alias)).result().keySet())
+                    : List.of();
+            boolean legacy = previous.isEmpty()
+                    && elasticsearchClient.indices().exists(request -> request.index(alias)).value();
+
+            List<Action> actions = new ArrayList<>();
+            if (legacy) {
+                actions.add(Action.of(action -> action.removeIndex(remove -> remove.index(alias))));
+            }
+            for (String old : previous) {
+                actions.add(Action.of(action -> action.remove(remove -> remove.index(old).alias(alias))));
+            }
+            actions.add(Action.of(action -> action.add(add -> add.index(index).alias(alias))));
+            elasticsearchClient.indices().updateAliases(request -> request.actions(actions));
+            log.info("Alias {} now points at {} (was {})", alias, index, legacy ? "a legacy index" : previous);
+
+            // the swap is done at this point, an old index that cannot be dropped is only logged
+            for (String old : previous) {
+                if (old.equals(index)) {
+                    continue;
+                }
+                try {
+                    deleteIndex(old);
+                } catch (SearchOperationException e) {
+                    log.error("Old product index {} is no longer used but could not be deleted", old, e);
+                }
+            }
+        } catch (IOException | ElasticsearchException e) {
+            throw new SearchOperationException("Failed to move alias " + alias + " to " + index, e);
+        }
+    }
+
+    public void deleteIndex(String index) {
+        try {
+            elasticsearchClient.indices().delete(request -> request.index(index));
+            log.info("Deleted index {}", index);
+        } catch (IOException | ElasticsearchException e) {
+            throw new SearchOperationException("Failed to delete index " + index, e);
+        }
+    }
+
+    public void setRefreshInterval(String index, String interval) {
+        try {
+            elasticsearchClient.indices().putSettings(request -> request
+                    .index(index)
+                    .settings(settings -> settings.refreshInterval(time -> time.time(interval))));
+        } catch (IOException | ElasticsearchException e) {
+            throw new SearchOperationException("Failed to set the refresh interval of " + index, e);
+        }
+    }
+
+    public void refresh(String index) {
+        try {
+            elasticsearchClient.indices().refresh(request -> request.index(index));
+        } catch (IOException | ElasticsearchException e) {
+            throw new SearchOperationException("Failed to refresh index " + index, e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.berke.app.productsearch.infrastructure.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+// reads product events straight from the topic, outside of the listeners' consumer group
+// a rebuild uses it to apply the events the listeners wrote to the old index while the new
+// one was loaded, nothing is committed, the listeners' offsets are not touched
+@Component
+@Slf4j
+public class ProductEventReplayer {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final String productEventsTopic;
+
+    public ProductEventReplayer(
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${app.kafka.topics.product-events}") String productEventsTopic
+    ) {
+        this.consumerFactory = consumerFactory;
+        this.productEventsTopic = productEventsTopic;
+    }
+
+    // per partition the first event at or after the given time, the end of the partition when there is none
+    public Map<TopicPartition, Long> offsetsAt(Instant time) {
+        try (Consumer<Object, Object> consumer = createConsumer()) {
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            consumer.partitionsFor(productEventsTopic).forEach(partition ->
+                    timestamps.put(new TopicPartition(productEventsTopic, partition.partition()), time.toEpochMilli()));
+
+            Map<TopicPartition, OffsetAndTimestamp> found = consumer.offsetsForTimes(timestamps);
+            Map<TopicPartition, Long> ends = consumer.endOffsets(timestamps.keySet());
+
+            Map<TopicPartition, Long> offsets = new HashMap<>();
+            for (TopicPartition partition : timestamps.keySet()) {
+                OffsetAndTimestamp offset = found.get(partition);
+                offsets.put(partition, offset != null ? offset.offset() : ends.get(partition));
+            }
+            return offsets;
+        }
+    }
+
+    // hands the events from the given offsets up to the current end of the topic to the writer
+    // in poll sized batches, returns the offsets reached so a later replay continues from there
+    public Map<TopicPartition, Long> replay(Map<TopicPartition, Long> from, Function<List<Object>, ?> writer) {
+        try (Consumer<Object, Object> consumer = createConsumer()) {
+            consumer.assign(from.keySet());
+            from.forEach(consumer::seek);
+            Map<TopicPartition, Long> ends = consumer.endOffsets(from.keySet());
+
+            long replayed = 0;
+            while (ends.entrySet().stream().anyMatch(end -> consumer.position(end.getKey()) < end.getValue())) {
+                List<Object> events = new ArrayList<>();
+                for (ConsumerRecord<Object, Object> record : consumer.poll(POLL_TIMEOUT)) {
+                    // events past the end are left for the next replay
+                    if (record.offset() < ends.get(new TopicPartition(record.topic(), record.partition()))) {
+                        events.add(record.value());
+                    }
+                }
+
+                if (!events.isEmpty()) {
+                    writer.apply(events);
+                    replayed += events.size();
+                }
+            }
+
+            log.info("Replayed {} product events", replayed);
+            return ends;
+        }
+    }
+
+    private Consumer<Object, Object> createConsumer() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return consumerFactory.createConsumer("search-service-reindex", null, "-replay", properties);
+    }
+}